@@ -1,9 +1,22 @@
 package by.osinovi.orderservice.config;
 
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
+@EnableCaching
+@EnableScheduling
 @EnableFeignClients(basePackages = "by.osinovi.orderservice.client")
 public class AppConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService userLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package by.osinovi.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    public ExponentialBackOffWithMaxRetries consumerBackOff(@Value("${spring.kafka.consumer.retry.initial-interval-ms}") long initialInterval,
+                                                            @Value("${spring.kafka.consumer.retry.max-interval-ms}") long maxInterval,
+                                                            @Value("${spring.kafka.consumer.retry.max-retries}") int maxRetries) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialInterval);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(maxInterval);
+        return backOff;
+    }
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(ExponentialBackOffWithMaxRetries consumerBackOff) {
+        return new DefaultErrorHandler(consumerBackOff);
+    }
+
+    /**
+     * The projector commits offsets itself once its workers finish records, so the container must not
+     * commit after each poll; idle events keep those commits flowing while the container is paused.
+     */
+    @Bean
+    public ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>> projectorContainerPostProcessor(
+            @Value("${order.projector.idle-commit-interval-ms}") long idleCommitInterval) {
+        return container -> {
+            container.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+            container.getContainerProperties().setIdleEventInterval(idleCommitInterval);
+        };
+    }
+}
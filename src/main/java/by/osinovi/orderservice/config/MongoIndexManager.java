@@ -0,0 +1,151 @@
+package by.osinovi.orderservice.config;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderRollupDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexManager implements SmartInitializingSingleton {
+    private static final String ID_INDEX = "_id_";
+    private static final List<Class<?>> MANAGED_DOCUMENTS = List.of(OrderDocument.class, OrderRollupDocument.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${mongo.index-check.enabled}")
+    private boolean selfCheckEnabled;
+
+    /**
+     * Runs once all singletons exist but before lifecycle beans start, so the indexes are in place
+     * before the Kafka listeners begin projecting into the collections.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        MANAGED_DOCUMENTS.forEach(type -> {
+            try {
+                manageIndexes(type);
+            } catch (RuntimeException e) {
+                log.error("Index management for {} failed", mongoTemplate.getCollectionName(type), e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (selfCheckEnabled) {
+            try {
+                selfCheck();
+            } catch (RuntimeException e) {
+                log.error("Index self-check for {} failed", collectionName(), e);
+            }
+        }
+    }
+
+    void manageIndexes(Class<?> type) {
+        String collection = mongoTemplate.getCollectionName(type);
+        IndexOperations indexOps = mongoTemplate.indexOps(type);
+        Map<String, String> declared = new LinkedHashMap<>();
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(type)
+                .forEach(definition -> declared.put(createIndex(indexOps, definition, collection), keysOf(definition.getIndexKeys())));
+
+        Map<String, String> existing = indexOps.getIndexInfo().stream()
+                .filter(info -> !ID_INDEX.equals(info.getName()))
+                .collect(Collectors.toMap(IndexInfo::getName, MongoIndexManager::keysOf, (first, second) -> first, LinkedHashMap::new));
+        List<String> drift = indexDrift(declared, existing);
+        if (drift.isEmpty()) {
+            log.info("Indexes of {} match the declared set {}", collection, declared.keySet());
+        } else {
+            drift.forEach(message -> log.warn("Index drift on {}: {}", collection, message));
+        }
+    }
+
+    private String createIndex(IndexOperations indexOps, IndexDefinition definition, String collection) {
+        Object name = definition.getIndexOptions().get("name");
+        try {
+            return indexOps.createIndex(definition);
+        } catch (RuntimeException e) {
+            log.warn("Cannot create index {} {} on {}: {}", name, definition.getIndexKeys().toJson(), collection, e.getMessage());
+            return String.valueOf(name);
+        }
+    }
+
+    static List<String> indexDrift(Map<String, String> declared, Map<String, String> existing) {
+        List<String> drift = new ArrayList<>();
+        declared.forEach((name, keys) -> {
+            String actual = existing.get(name);
+            if (actual == null) {
+                drift.add("declared index " + name + " " + keys + " is missing");
+            } else if (!actual.equals(keys)) {
+                drift.add("index " + name + " has keys " + actual + " but " + keys + " is declared");
+            }
+        });
+        existing.forEach((name, keys) -> {
+            if (!declared.containsKey(name)) {
+                drift.add("index " + name + " " + keys + " is not declared by the service");
+            }
+        });
+        return drift;
+    }
+
+    private void selfCheck() {
+        Map<String, Document[]> probes = new LinkedHashMap<>();
+        probes.put("orders by user", new Document[]{new Document("user.id", 0L), new Document("creationDate", -1).append("_id", -1)});
+        probes.put("export by status", new Document[]{new Document("status", "PAID"), new Document()});
+        probes.put("export by creation date", new Document[]{new Document("creationDate", new Document("$gte", LocalDate.now())), new Document()});
+        probes.put("order by payment", new Document[]{new Document("paymentId", UUID.randomUUID()), new Document()});
+
+        probes.forEach((name, probe) -> {
+            Document explain = mongoTemplate.getCollection(collectionName()).find(probe[0]).sort(probe[1]).explain();
+            if (usesCollectionScan(explain)) {
+                log.warn("Query '{}' {} on {} is not served by an index", name, probe[0].toJson(), collectionName());
+            } else {
+                log.debug("Query '{}' on {} uses an index", name, collectionName());
+            }
+        });
+    }
+
+    static boolean usesCollectionScan(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Object winningPlan = queryPlanner == null ? null : queryPlanner.get("winningPlan");
+        return winningPlan instanceof Document plan && plan.toJson().contains("\"COLLSCAN\"");
+    }
+
+    private static String keysOf(Document keys) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String keysOf(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(OrderDocument.class);
+    }
+}
@@ -3,6 +3,7 @@ package by.osinovi.orderservice.controller;
 import by.osinovi.orderservice.dto.item.ItemRequestDto;
 import by.osinovi.orderservice.dto.item.ItemResponseDto;
 import by.osinovi.orderservice.service.ItemService;
+import by.osinovi.orderservice.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,12 +33,19 @@ public class ItemController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ItemResponseDto> getItemById(@PathVariable Long id) {
-        return ResponseEntity.status(HttpStatus.OK).body(itemService.getItemById(id));
+        ItemResponseDto item = itemService.getItemById(id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETags.of("item", item.getId(), item.getName(), item.getPrice()))
+                .body(item);
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemResponseDto>> getAllItems() {
-        return ResponseEntity.status(HttpStatus.OK).body(itemService.getAllItems());
+    public ResponseEntity<List<ItemResponseDto>> getAllItems(WebRequest request) {
+        String catalogVersion = itemService.getCatalogVersion();
+        if (request.checkNotModified(catalogVersion)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(catalogVersion).body(itemService.getAllItems());
     }
 
     @PutMapping("/{id}")
@@ -1,13 +1,26 @@
 package by.osinovi.orderservice.controller;
 
 import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.dto.order.OrderBatchDeleteRequestDto;
+import by.osinovi.orderservice.dto.order.OrderBatchDeleteResponseDto;
+import by.osinovi.orderservice.dto.order.OrderBatchRequestDto;
+import by.osinovi.orderservice.dto.order.OrderBatchResponseDto;
 import by.osinovi.orderservice.dto.order.OrderRequestDto;
+import by.osinovi.orderservice.dto.order.OrderStatsDto;
 import by.osinovi.orderservice.dto.order.OrderWithUserResponseDto;
+import by.osinovi.orderservice.dto.page.CursorPageDto;
 import by.osinovi.orderservice.service.OrderCommandService;
 import by.osinovi.orderservice.service.OrderQueryService;
+import by.osinovi.orderservice.service.OrderStatsService;
+import by.osinovi.orderservice.util.ETags;
+import by.osinovi.orderservice.util.OrderStatus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,31 +28,78 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
+    private static final int EXPORT_GZIP_BUFFER = 64 * 1024;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderQueryService orderQueryService;
     private final OrderCommandService orderCommandService;
+    private final OrderStatsService orderStatsService;
 
     @PostMapping
     public ResponseEntity<OrderWithUserResponseDto> createOrder(@Valid @RequestBody OrderRequestDto orderRequestDto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(orderCommandService.createOrder(orderRequestDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponseDto> createOrders(@Valid @RequestBody OrderBatchRequestDto orderBatchRequestDto) {
+        List<Long> orderIds = orderCommandService.createOrders(orderBatchRequestDto.getOrders());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new OrderBatchResponseDto(orderIds.size(), orderIds));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDocument> getOrderById(@PathVariable Long id) {
-        return ResponseEntity.status(HttpStatus.OK).body(orderQueryService.getOrderById(id));
+    public ResponseEntity<OrderDocument> getOrderById(@PathVariable Long id, @RequestParam(required = false) Set<String> fields) {
+        OrderDocument order = fields == null ? orderQueryService.getOrderById(id) : orderQueryService.getOrderById(id, fields);
+        return ResponseEntity.status(HttpStatus.OK).eTag(orderETag(order, fields)).body(order);
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderDocument>> getAllOrders() {
-        return ResponseEntity.status(HttpStatus.OK).body(orderQueryService.getAllOrders());
+    public ResponseEntity<CursorPageDto<?>> getOrders(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) Set<String> fields) {
+        CursorPageDto<?> page = fields == null ? orderQueryService.getOrderSummaries(cursor, size) : orderQueryService.getOrders(cursor, size, fields);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<OrderStatsDto>> getOrderStats(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.status(HttpStatus.OK).body(orderStatsService.getStats(from, to));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) OrderStatus status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(required = false) Set<String> fields,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Query query = orderQueryService.exportQuery(status, from, to, fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).contentType(MediaType.parseMediaType(NDJSON));
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            return response.body(outputStream -> orderQueryService.exportOrders(query, outputStream));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(outputStream -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(outputStream, EXPORT_GZIP_BUFFER);
+                    orderQueryService.exportOrders(query, gzip);
+                    gzip.finish();
+                });
     }
 
     @PutMapping("/{id}")
@@ -47,9 +107,22 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.OK).body(orderCommandService.updateOrder(id, orderRequestDto));
     }
 
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<OrderBatchDeleteResponseDto> deleteOrders(@Valid @RequestBody OrderBatchDeleteRequestDto orderBatchDeleteRequestDto) {
+        List<Long> deletedIds = orderCommandService.deleteOrders(orderBatchDeleteRequestDto.getIds());
+        return ResponseEntity.status(HttpStatus.OK).body(new OrderBatchDeleteResponseDto(deletedIds.size(), deletedIds));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderCommandService.deleteOrder(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
-}
\ No newline at end of file
+
+    private String orderETag(OrderDocument order, Set<String> fields) {
+        String fieldSet = fields == null ? "*" : String.join(",", new TreeSet<>(fields));
+        return order.getVersion() == null
+                ? ETags.of("order", order.getId(), fieldSet, order)
+                : ETags.of("order", order.getId(), order.getVersion(), fieldSet);
+    }
+}
@@ -0,0 +1,32 @@
+package by.osinovi.orderservice.controller;
+
+import by.osinovi.orderservice.dto.page.CursorPageDto;
+import by.osinovi.orderservice.service.OrderQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/users/{userId}/orders")
+@RequiredArgsConstructor
+public class UserOrderController {
+    private final OrderQueryService orderQueryService;
+
+    @GetMapping
+    public ResponseEntity<CursorPageDto<?>> getOrdersByUser(@PathVariable Long userId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @RequestParam(required = false) Set<String> fields) {
+        CursorPageDto<?> page = fields == null
+                ? orderQueryService.getOrderSummariesByUser(userId, cursor, size)
+                : orderQueryService.getOrdersByUser(userId, cursor, size, fields);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+}
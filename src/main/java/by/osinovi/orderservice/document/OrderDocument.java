@@ -1,8 +1,11 @@
 package by.osinovi.orderservice.document;
 
 import by.osinovi.orderservice.util.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,12 +13,18 @@ import java.util.List;
 import java.util.UUID;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Document("orders_read_model")
+@CompoundIndex(name = "user_creation_date_id", def = "{'user.id': 1, 'creationDate': -1, '_id': -1}")
 public class OrderDocument {
     @Id
     private Long id;
+    private Long version;
+    @Indexed
     private OrderStatus status;
+    @Indexed
     private LocalDate creationDate;
+    @Indexed(sparse = true)
     private UUID paymentId;
     private BigDecimal totalAmount;
 
@@ -0,0 +1,25 @@
+package by.osinovi.orderservice.document;
+
+import by.osinovi.orderservice.util.OrderStatus;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Document("order_rollups")
+@CompoundIndex(name = "day_status", def = "{'day': 1, 'status': 1}")
+public class OrderRollupDocument {
+    @Id
+    private String id;
+    private LocalDate day;
+    private OrderStatus status;
+    private long count;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,17 @@
+package by.osinovi.orderservice.document;
+
+import by.osinovi.orderservice.util.OrderStatus;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class OrderSummary {
+    @Id
+    private Long id;
+    private OrderStatus status;
+    private LocalDate creationDate;
+    private BigDecimal totalAmount;
+}
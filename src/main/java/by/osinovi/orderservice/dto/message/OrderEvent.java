@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @Builder
@@ -16,9 +17,11 @@ import java.util.List;
 @AllArgsConstructor
 public class OrderEvent {
     private Long orderId;
+    private Long version;
     private Long userId;
     private OrderStatus status;
     private LocalDate creationDate;
+    private UUID paymentId;
     private BigDecimal totalAmount;
     private List<OrderItemData> items;
 
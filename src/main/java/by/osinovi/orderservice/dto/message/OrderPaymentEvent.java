@@ -0,0 +1,20 @@
+package by.osinovi.orderservice.dto.message;
+
+import by.osinovi.orderservice.util.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPaymentEvent {
+    private Long orderId;
+    private Long version;
+    private OrderStatus status;
+    private UUID paymentId;
+}
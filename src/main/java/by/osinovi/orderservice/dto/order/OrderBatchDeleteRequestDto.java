@@ -0,0 +1,22 @@
+package by.osinovi.orderservice.dto.order;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchDeleteRequestDto {
+    @NotEmpty(message = "Between 1 and 10000 order ids must be provided")
+    @Size(max = 10000, message = "Between 1 and 10000 order ids must be provided")
+    private List<@NotNull Long> ids = new ArrayList<>();
+}
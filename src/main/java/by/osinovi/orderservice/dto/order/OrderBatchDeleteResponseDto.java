@@ -0,0 +1,18 @@
+package by.osinovi.orderservice.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchDeleteResponseDto {
+    private int deleted;
+    private List<Long> orderIds = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package by.osinovi.orderservice.dto.order;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequestDto {
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Size(max = 10000, message = "Batch must contain at most 10000 orders")
+    private List<@Valid OrderRequestDto> orders = new ArrayList<>();
+}
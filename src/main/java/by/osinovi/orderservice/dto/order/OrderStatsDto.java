@@ -0,0 +1,21 @@
+package by.osinovi.orderservice.dto.order;
+
+import by.osinovi.orderservice.util.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsDto {
+    private LocalDate day;
+    private OrderStatus status;
+    private long count;
+    private BigDecimal revenue;
+}
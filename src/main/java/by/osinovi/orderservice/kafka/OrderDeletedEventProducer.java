@@ -4,21 +4,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class OrderDeletedEventProducer {
-    private final KafkaTemplate<String, Long> orderDeletedKafkaTemplate;
+    private static final String TYPE_ID = "long";
+
+    private final KafkaTemplate<String, byte[]> serializedKafkaTemplate;
+    private final ProducerSendMetrics producerSendMetrics;
 
 
     @Value("${spring.kafka.topics.order-deleted}")
     private String orderDeletedTopic;
 
-    public void sendCreateOrderDeletedEvent(Long id) {
-        orderDeletedKafkaTemplate.send(orderDeletedTopic, id.toString(), id);
-        log.info("Published OrderDeletedEvent for order ID: {}", id);
+    public CompletableFuture<SendResult<String, byte[]>> sendCreateOrderDeletedEvent(String key, byte[] payload) {
+        return producerSendMetrics.record(orderDeletedTopic, serializedKafkaTemplate.send(SerializedRecords.of(orderDeletedTopic, key, payload, TYPE_ID)));
     }
 
 }
\ No newline at end of file
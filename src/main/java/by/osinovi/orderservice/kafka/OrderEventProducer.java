@@ -1,25 +1,33 @@
 package by.osinovi.orderservice.kafka;
 
-import by.osinovi.orderservice.dto.message.OrderEvent;
-import by.osinovi.orderservice.entity.Order;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class OrderEventProducer {
-    private final KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate;
+    private static final String TYPE_ID = "orderEvent";
+    private static final String PAYMENT_TYPE_ID = "orderPayment";
+
+    private final KafkaTemplate<String, byte[]> serializedKafkaTemplate;
+    private final ProducerSendMetrics producerSendMetrics;
 
     @Value("${spring.kafka.topics.order-events}")
     private String orderEventsTopic;
 
-    public void sendCreateOrderEventToMongo(Order order, OrderEvent event) {
-        orderEventKafkaTemplate.send(orderEventsTopic, order.getId().toString(), event);
-        log.info("Published OrderEvent for order ID: {}", order.getId());
+    public CompletableFuture<SendResult<String, byte[]>> sendCreateOrderEventToMongo(String key, byte[] payload) {
+        return producerSendMetrics.record(orderEventsTopic, serializedKafkaTemplate.send(SerializedRecords.of(orderEventsTopic, key, payload, TYPE_ID)));
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendOrderPaymentEvent(String key, byte[] payload) {
+        return producerSendMetrics.record(orderEventsTopic, serializedKafkaTemplate.send(SerializedRecords.of(orderEventsTopic, key, payload, PAYMENT_TYPE_ID)));
     }
 
 }
\ No newline at end of file
@@ -1,23 +1,28 @@
 package by.osinovi.orderservice.kafka;
 
-import by.osinovi.orderservice.dto.message.OrderMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class OrderProducer {
-    private final KafkaTemplate<String, OrderMessage> orderKafkaTemplate;
+    private static final String TYPE_ID = "orderMsg";
+
+    private final KafkaTemplate<String, byte[]> serializedKafkaTemplate;
+    private final ProducerSendMetrics producerSendMetrics;
 
     @Value("${spring.kafka.topics.orders}")
     private String ordersTopic;
 
-    public void sendCreateOrderEvent(OrderMessage orderMessage) {
-        orderKafkaTemplate.send(ordersTopic, orderMessage.getOrderId().toString(), orderMessage);
+    public CompletableFuture<SendResult<String, byte[]>> sendCreateOrderEvent(String key, byte[] payload) {
+        return producerSendMetrics.record(ordersTopic, serializedKafkaTemplate.send(SerializedRecords.of(ordersTopic, key, payload, TYPE_ID)));
     }
 
 }
\ No newline at end of file
@@ -2,18 +2,49 @@ package by.osinovi.orderservice.kafka;
 
 import by.osinovi.orderservice.document.OrderDocument;
 import by.osinovi.orderservice.dto.message.OrderEvent;
-import by.osinovi.orderservice.dto.message.PaymentMessage;
+import by.osinovi.orderservice.dto.message.OrderPaymentEvent;
 import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
-import by.osinovi.orderservice.repository.OrderMongoRepository;
+import by.osinovi.orderservice.service.OrderStatsService;
 import by.osinovi.orderservice.service.UserInfoService;
+import by.osinovi.orderservice.util.CacheNames;
 import by.osinovi.orderservice.util.OrderStatus;
-import by.osinovi.orderservice.util.PaymentStatus;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -21,20 +52,292 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class OrderProjector {
+    private static final String PROJECTOR_ID = "order-projector";
+    private static final String PROJECTOR_GROUP = "order-projector-group";
+    private static final int DUPLICATE_KEY = 11000;
 
-    private final OrderMongoRepository mongoRepository;
+    private final MongoTemplate mongoTemplate;
     private final UserInfoService userInfoService;
+    private final OrderStatsService orderStatsService;
+    private final CacheManager cacheManager;
+    private final ProjectionWorkers projectionWorkers;
+    private final BackOff consumerBackOff;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final ProjectionOffsets offsets = new ProjectionOffsets();
+
+    @Value("${spring.kafka.consumer.max-poll-records}")
+    private int maxPollRecords;
+
+    @KafkaListener(topics = "${spring.kafka.topics.order-events}", groupId = PROJECTOR_GROUP,
+            autoStartup = "#{!${order.projector.batch.enabled}}")
+    public void projectOrderEventRecord(ConsumerRecord<String, Object> record) {
+        if (record.value() instanceof OrderPaymentEvent payment) {
+            projectOrderPayment(payment);
+        } else if (record.value() instanceof OrderEvent event) {
+            projectOrderEvent(event);
+        } else {
+            log.warn("Skipping unexpected {} on {}", record.value() == null ? null : record.value().getClass().getSimpleName(), record.topic());
+        }
+    }
 
-    @KafkaListener(topics = "${spring.kafka.topics.order-events}", groupId = "order-projector-group")
     public void projectOrderEvent(OrderEvent event) {
         log.info("Projecting event for order ID: {}", event.getOrderId());
-        
-        UserInfoResponseDto userDto = userInfoService.getUserInfoById(event.getUserId());
+        OrderDocument orderDocument = toDocument(event, userInfoService.getUserInfoByIds(Set.of(event.getUserId())).get(event.getUserId()));
+        OrderDocument previous;
+        try {
+            previous = mongoTemplate.findAndReplace(newerThanProjection(event.getOrderId(), event.getVersion()), orderDocument,
+                    FindAndReplaceOptions.options().upsert());
+        } catch (DuplicateKeyException e) {
+            log.info("Dropped stale event version {} for order ID: {}", event.getVersion(), event.getOrderId());
+            return;
+        }
+        orderStatsService.recordTransition(previous, orderDocument);
+        ordersCache().put(orderDocument.getId(), orderDocument);
+        log.info("Saved projection for order ID: {}", event.getOrderId());
+    }
+
+    public void projectOrderPayment(OrderPaymentEvent payment) {
+        log.info("Projecting payment status for order ID: {}", payment.getOrderId());
+        OrderDocument previous = mongoTemplate.findAndModify(rollupFields(newerThanProjection(payment.getOrderId(), payment.getVersion())),
+                paymentUpdate(payment), OrderDocument.class);
+        if (previous != null) {
+            orderStatsService.recordTransition(previous, withStatus(previous, payment.getStatus()));
+        } else {
+            log.info("Dropped stale payment version {} for order ID: {}", payment.getVersion(), payment.getOrderId());
+        }
+        ordersCache().evict(payment.getOrderId());
+    }
+
+    @KafkaListener(topics = "${spring.kafka.topics.order-deleted}", groupId = PROJECTOR_GROUP,
+            autoStartup = "#{!${order.projector.batch.enabled}}")
+    public void projectOrderDeletion(Long orderId) {
+        log.info("Projecting deletion for order ID: {}", orderId);
+        OrderDocument previous = mongoTemplate.findAndRemove(rollupFields(byId(orderId)), OrderDocument.class);
+        orderStatsService.recordTransition(previous, null);
+        ordersCache().evict(orderId);
+    }
+
+    @PostConstruct
+    void startWorkers() {
+        if (projectionWorkers.queueCapacity() < maxPollRecords) {
+            throw new IllegalStateException("order.projector.queue-capacity must hold at least one poll of "
+                    + maxPollRecords + " records, got " + projectionWorkers.queueCapacity());
+        }
+        projectionWorkers.start(this::projectWithRetry);
+    }
+
+    @KafkaListener(id = PROJECTOR_ID, idIsGroup = false,
+            topics = {"${spring.kafka.topics.order-events}", "${spring.kafka.topics.order-deleted}"},
+            groupId = PROJECTOR_GROUP, batch = "true", autoStartup = "${order.projector.batch.enabled}",
+            containerPostProcessor = "projectorContainerPostProcessor")
+    public void dispatchBatch(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, Object> record : records) {
+            offsets.dispatched(record);
+            Long orderId = orderIdOf(record.value());
+            if (orderId == null) {
+                log.warn("Skipping unexpected {} on {}", record.value() == null ? null : record.value().getClass().getSimpleName(), record.topic());
+                offsets.completed(record);
+                continue;
+            }
+            try {
+                projectionWorkers.submit(orderId, record);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (projectionWorkers.remainingCapacity() < maxPollRecords) {
+            MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(PROJECTOR_ID);
+            if (container != null && !container.isPauseRequested()) {
+                log.info("Pausing projector, a worker queue has room for only {} record(s)", projectionWorkers.remainingCapacity());
+                container.pause();
+            }
+        }
+        commitCompleted(consumer);
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + PROJECTOR_ID + "')")
+    public void commitWhileIdle(ListenerContainerIdleEvent event) {
+        if (event.getConsumer() != null) {
+            commitCompleted(event.getConsumer());
+        }
+        resumeIfDrained();
+    }
+
+    void projectWithRetry(List<ConsumerRecord<String, Object>> records) {
+        BackOffExecution backOff = consumerBackOff.start();
+        while (true) {
+            try {
+                projectBatch(records);
+                break;
+            } catch (RuntimeException e) {
+                long interval = backOff.nextBackOff();
+                if (interval == BackOffExecution.STOP) {
+                    log.error("Skipping {} record(s) after projection retries were exhausted", records.size(), e);
+                    break;
+                }
+                log.warn("Projection of {} record(s) failed, retrying in {} ms", records.size(), interval, e);
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        records.forEach(offsets::completed);
+        resumeIfDrained();
+    }
+
+    public void projectBatch(List<ConsumerRecord<String, Object>> records) {
+        Map<Long, PendingProjection> pending = new LinkedHashMap<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            Object value = record.value();
+            if (value instanceof OrderEvent event) {
+                pending.computeIfAbsent(event.getOrderId(), id -> new PendingProjection()).replace(event);
+            } else if (value instanceof OrderPaymentEvent payment) {
+                pending.computeIfAbsent(payment.getOrderId(), id -> new PendingProjection()).pay(payment);
+            } else if (value instanceof Long orderId) {
+                pending.computeIfAbsent(orderId, id -> new PendingProjection()).delete();
+            } else {
+                log.warn("Skipping unexpected {} on {}", value == null ? null : value.getClass().getSimpleName(), record.topic());
+            }
+        }
+        if (!pending.isEmpty()) {
+            project(pending);
+        }
+    }
+
+    private void commitCompleted(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> committable = offsets.committable(consumer.assignment());
+        if (!committable.isEmpty()) {
+            consumer.commitAsync(committable, (committed, error) -> {
+                if (error != null) {
+                    log.warn("Failed to commit projected offsets {}", committed, error);
+                }
+            });
+        }
+    }
+
+    private void resumeIfDrained() {
+        MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(PROJECTOR_ID);
+        if (container != null && container.isPauseRequested() && projectionWorkers.remainingCapacity() >= maxPollRecords) {
+            log.info("Resuming projector, worker queues drained");
+            container.resume();
+        }
+    }
+
+    private void project(Map<Long, PendingProjection> pending) {
+        Query previousQuery = new Query(Criteria.where("_id").in(pending.keySet()));
+        previousQuery.fields().include("version", "status", "creationDate", "totalAmount");
+        Map<Long, OrderDocument> previous = mongoTemplate.find(previousQuery, OrderDocument.class).stream()
+                .collect(Collectors.toMap(OrderDocument::getId, Function.identity()));
+
+        Map<Long, UserInfoResponseDto> users = userInfoService.getUserInfoByIds(pending.values().stream()
+                .filter(projection -> projection.event != null)
+                .map(projection -> projection.event.getUserId())
+                .collect(Collectors.toSet()));
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class);
+        List<Long> operations = new ArrayList<>();
+        Map<Long, OrderDocument> projected = new HashMap<>();
+        Map<Long, OrderDocument> replaced = new HashMap<>();
+        int stale = 0;
+        for (Map.Entry<Long, PendingProjection> entry : pending.entrySet()) {
+            Long orderId = entry.getKey();
+            PendingProjection projection = entry.getValue();
+            OrderDocument before = previous.get(orderId);
+            OrderEvent event = projection.event;
+            if (event != null && isStale(event.getVersion(), before)) {
+                event = null;
+                stale++;
+            }
+            OrderPaymentEvent payment = projection.payment;
+            if (payment != null && isStale(payment.getVersion(), before)) {
+                payment = null;
+                stale++;
+            }
+
+            if (event != null) {
+                OrderDocument document = toDocument(event, users.get(event.getUserId()));
+                if (payment != null) {
+                    document.setStatus(payment.getStatus());
+                    document.setPaymentId(payment.getPaymentId());
+                    document.setVersion(payment.getVersion());
+                }
+                bulk.replaceOne(newerThanProjection(orderId, document.getVersion()), document, FindAndReplaceOptions.options().upsert());
+                operations.add(orderId);
+                projected.put(orderId, document);
+                replaced.put(orderId, document);
+            } else if (payment != null) {
+                bulk.updateOne(newerThanProjection(orderId, payment.getVersion()), paymentUpdate(payment));
+                operations.add(orderId);
+                if (before != null) {
+                    projected.put(orderId, withStatus(before, payment.getStatus()));
+                }
+            } else if (projection.deleted) {
+                bulk.remove(byId(orderId));
+                operations.add(orderId);
+            } else if (before != null) {
+                projected.put(orderId, before);
+            }
+        }
+
+        BulkWriteResult result;
+        if (operations.isEmpty()) {
+            result = BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+        } else {
+            try {
+                result = bulk.execute();
+            } catch (BulkOperationException e) {
+                if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                    throw e;
+                }
+                result = e.getResult();
+                for (BulkWriteError error : e.getErrors()) {
+                    Long orderId = operations.get(error.getIndex());
+                    replaced.remove(orderId);
+                    projected.remove(orderId);
+                    if (previous.containsKey(orderId)) {
+                        projected.put(orderId, previous.get(orderId));
+                    }
+                }
+                stale += e.getErrors().size();
+            }
+        }
+
+        orderStatsService.recordTransitions(previous, projected);
+        pending.keySet().forEach(orderId -> {
+            if (replaced.containsKey(orderId)) {
+                ordersCache().put(orderId, replaced.get(orderId));
+            } else {
+                ordersCache().evict(orderId);
+            }
+        });
+        log.info("Projected {} order(s): {} upserted, {} modified, {} deleted, {} stale dropped",
+                pending.size(), result.getUpserts().size(), result.getModifiedCount(), result.getDeletedCount(), stale);
+    }
+
+    private Long orderIdOf(Object value) {
+        if (value instanceof OrderEvent event) {
+            return event.getOrderId();
+        }
+        if (value instanceof OrderPaymentEvent payment) {
+            return payment.getOrderId();
+        }
+        return value instanceof Long orderId ? orderId : null;
+    }
+
+    private OrderDocument toDocument(OrderEvent event, UserInfoResponseDto userDto) {
         OrderDocument.UserInfo userInfo = new OrderDocument.UserInfo();
-        userInfo.setId(userDto.getId());
-        userInfo.setName(userDto.getName());
-        userInfo.setSurname(userDto.getSurname());
-        userInfo.setEmail(userDto.getEmail());
+        userInfo.setId(event.getUserId());
+        if (userDto != null) {
+            userInfo.setName(userDto.getName());
+            userInfo.setSurname(userDto.getSurname());
+            userInfo.setEmail(userDto.getEmail());
+        } else {
+            log.warn("Projecting order ID: {} without details of unknown user {}", event.getOrderId(), event.getUserId());
+        }
 
         List<OrderDocument.OrderItemInfo> itemInfos = event.getItems().stream()
                 .map(itemData -> {
@@ -48,32 +351,89 @@ public class OrderProjector {
 
         OrderDocument orderDocument = new OrderDocument();
         orderDocument.setId(event.getOrderId());
+        orderDocument.setVersion(event.getVersion());
         orderDocument.setStatus(event.getStatus());
         orderDocument.setCreationDate(event.getCreationDate());
+        orderDocument.setPaymentId(event.getPaymentId());
         orderDocument.setTotalAmount(event.getTotalAmount());
         orderDocument.setUser(userInfo);
         orderDocument.setItems(itemInfos);
+        return orderDocument;
+    }
 
-        mongoRepository.save(orderDocument);
-        log.info("Saved projection for order ID: {}", event.getOrderId());
+    private boolean isStale(Long version, OrderDocument projection) {
+        return version != null && projection != null && projection.getVersion() != null
+                && projection.getVersion() >= version;
     }
-    
-    @KafkaListener(topics = "${spring.kafka.topics.payments}", groupId = "order-projector-group")
-    public void projectPaymentStatusUpdate(PaymentMessage paymentMessage) {
-        log.info("Projecting payment status for order ID: {}", paymentMessage.getOrderId());
-        mongoRepository.findById(paymentMessage.getOrderId()).ifPresent(orderDoc -> {
-            OrderStatus newStatus = paymentMessage.getStatus().equals(PaymentStatus.SUCCESS) 
-                                    ? OrderStatus.PAID : OrderStatus.FAILED;
-            orderDoc.setStatus(newStatus);
-            orderDoc.setPaymentId(paymentMessage.getId());
-            mongoRepository.save(orderDoc);
-        });
-        log.info("Updated order {} with status {}", paymentMessage.getOrderId(), paymentMessage.getStatus());
+
+    private Query newerThanProjection(Long orderId, Long version) {
+        Query query = byId(orderId);
+        if (version != null) {
+            query.addCriteria(Criteria.where("version").not().gte(version));
+        }
+        return query;
     }
 
-    @KafkaListener(topics = "${spring.kafka.topics.order-deleted}", groupId = "order-projector-group")
-    public void projectOrderDeletion(Long orderId) {
-        log.info("Projecting deletion for order ID: {}", orderId);
-        mongoRepository.deleteById(orderId);
+    private Update paymentUpdate(OrderPaymentEvent payment) {
+        return new Update()
+                .set("status", payment.getStatus())
+                .set("paymentId", payment.getPaymentId())
+                .set("version", payment.getVersion());
+    }
+
+    private OrderDocument withStatus(OrderDocument previous, OrderStatus status) {
+        OrderDocument updated = new OrderDocument();
+        updated.setId(previous.getId());
+        updated.setCreationDate(previous.getCreationDate());
+        updated.setTotalAmount(previous.getTotalAmount());
+        updated.setStatus(status);
+        return updated;
+    }
+
+    private Query byId(Long orderId) {
+        return new Query(Criteria.where("_id").is(orderId));
+    }
+
+    private Query rollupFields(Query query) {
+        query.fields().include("status", "creationDate", "totalAmount");
+        return query;
+    }
+
+    private Cache ordersCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheNames.ORDERS));
+    }
+
+    private static final class PendingProjection {
+        private OrderEvent event;
+        private OrderPaymentEvent payment;
+        private boolean deleted;
+
+        private void replace(OrderEvent event) {
+            if (deleted || this.event != null && olderThan(event.getVersion(), this.event.getVersion())) {
+                return;
+            }
+            this.event = event;
+            if (payment != null && !olderThan(event.getVersion(), payment.getVersion())) {
+                payment = null;
+            }
+        }
+
+        private void pay(OrderPaymentEvent payment) {
+            if (deleted || this.payment != null && olderThan(payment.getVersion(), this.payment.getVersion())
+                    || event != null && event.getVersion() != null && !olderThan(event.getVersion(), payment.getVersion())) {
+                return;
+            }
+            this.payment = payment;
+        }
+
+        private void delete() {
+            this.event = null;
+            this.payment = null;
+            this.deleted = true;
+        }
+
+        private static boolean olderThan(Long version, Long other) {
+            return version != null && other != null && version < other;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.entity.OutboxEvent;
+import by.osinovi.orderservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderProducer orderProducer;
+    private final OrderEventProducer orderEventProducer;
+    private final OrderDeletedEventProducer orderDeletedEventProducer;
+
+    @Value("${outbox.relay.batch-size}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.max-attempts}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay-ms}")
+    public void relay() {
+        Integer sent;
+        do {
+            sent = transactionTemplate.execute(status -> relayBatch());
+        } while (sent != null && sent == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = events.stream()
+                .map(this::send)
+                .toList();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            log.warn("Not all of {} outbox events were sent: {}", events.size(), e.getCause().toString());
+        }
+
+        List<OutboxEvent> sent = new ArrayList<>(events.size());
+        for (int index = 0; index < events.size(); index++) {
+            CompletableFuture<?> send = sends.get(index);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sent.add(events.get(index));
+            } else {
+                recordFailedAttempt(events.get(index), send);
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(sent);
+        }
+        log.debug("Relayed {} of {} outbox events", sent.size(), events.size());
+        return sent.size();
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        byte[] payload = event.getPayload().getBytes(StandardCharsets.UTF_8);
+        try {
+            return switch (event.getType()) {
+                case ORDER_MESSAGE -> orderProducer.sendCreateOrderEvent(event.getMessageKey(), payload);
+                case ORDER_EVENT -> orderEventProducer.sendCreateOrderEventToMongo(event.getMessageKey(), payload);
+                case ORDER_PAYMENT -> orderEventProducer.sendOrderPaymentEvent(event.getMessageKey(), payload);
+                case ORDER_DELETED -> orderDeletedEventProducer.sendCreateOrderDeletedEvent(event.getMessageKey(), payload);
+            };
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailedAttempt(OutboxEvent event, CompletableFuture<?> send) {
+        String error = send.isDone()
+                ? send.exceptionNow().toString()
+                : "not acknowledged within " + sendTimeoutMs + " ms";
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setParkedAt(Instant.now());
+            log.error("Parked outbox event {} ({} for key {}) after {} failed attempts: {}",
+                    event.getId(), event.getType(), event.getMessageKey(), event.getAttempts(), error);
+        } else {
+            log.warn("Outbox event {} ({} for key {}) failed attempt {} of {}: {}",
+                    event.getId(), event.getType(), event.getMessageKey(), event.getAttempts(), maxAttempts, error);
+        }
+    }
+}
@@ -7,15 +7,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentConsumer {
+    private static final String CONSUMER = "order-service";
+
     private final OrderCommandService orderCommandService;
+    private final PaymentDeduplicator paymentDeduplicator;
 
-    @KafkaListener(topics = "${spring.kafka.topics.payments}", groupId = "${spring.kafka.consumer.group-id}")
-    public void handleCreatePayment(PaymentMessage paymentMessage) {
-        log.info("Processing payment {} with status {} for order {}", paymentMessage.getId(), paymentMessage.getStatus(), paymentMessage.getOrderId());
-        orderCommandService.processPayment(paymentMessage);
+    @KafkaListener(topics = "${spring.kafka.topics.payments}", groupId = "${spring.kafka.consumer.group-id}", batch = "true")
+    public void handleCreatePayments(List<PaymentMessage> paymentMessages) {
+        List<PaymentMessage> fresh = paymentDeduplicator.filterNew(CONSUMER, paymentMessages);
+        log.info("Processing batch of {} payments ({} duplicates skipped)", fresh.size(), paymentMessages.size() - fresh.size());
+        if (fresh.isEmpty()) {
+            return;
+        }
+        orderCommandService.processPayments(fresh);
+        paymentDeduplicator.markProcessed(CONSUMER, fresh);
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.dto.message.PaymentMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PaymentDeduplicator {
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final Map<String, Map<UUID, Boolean>> processedByConsumer = new ConcurrentHashMap<>();
+
+    public PaymentDeduplicator(MeterRegistry meterRegistry, @Value("${payment.dedup.capacity}") int capacity) {
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+    }
+
+    public List<PaymentMessage> filterNew(String consumer, List<PaymentMessage> paymentMessages) {
+        Map<UUID, Boolean> processed = processed(consumer);
+        Set<UUID> seen = new HashSet<>();
+        List<PaymentMessage> fresh;
+        synchronized (processed) {
+            fresh = paymentMessages.stream()
+                    .filter(paymentMessage -> processed.get(paymentMessage.getId()) == null)
+                    .filter(paymentMessage -> seen.add(paymentMessage.getId()))
+                    .toList();
+        }
+        int skipped = paymentMessages.size() - fresh.size();
+        if (skipped > 0) {
+            Counter.builder("payments.duplicates.skipped")
+                    .description("Redelivered payments skipped before touching the database")
+                    .tag("consumer", consumer)
+                    .register(meterRegistry)
+                    .increment(skipped);
+        }
+        return fresh;
+    }
+
+    public void markProcessed(String consumer, Collection<PaymentMessage> paymentMessages) {
+        Map<UUID, Boolean> processed = processed(consumer);
+        synchronized (processed) {
+            paymentMessages.forEach(paymentMessage -> processed.put(paymentMessage.getId(), Boolean.TRUE));
+        }
+    }
+
+    private Map<UUID, Boolean> processed(String consumer) {
+        return processedByConsumer.computeIfAbsent(consumer, key -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+}
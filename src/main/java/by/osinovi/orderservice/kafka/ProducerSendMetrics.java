@@ -0,0 +1,64 @@
+package by.osinovi.orderservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class ProducerSendMetrics {
+    private static final int DEFAULT_BATCH_SIZE = 16384;
+
+    private final MeterRegistry meterRegistry;
+
+    public ProducerSendMetrics(MeterRegistry meterRegistry, KafkaTemplate<?, ?> kafkaTemplate) {
+        this.meterRegistry = meterRegistry;
+        int configuredBatchSize = configuredBatchSize(kafkaTemplate);
+        Gauge.builder("kafka.producer.batch.fill.ratio", kafkaTemplate, template -> batchFillRatio(template, configuredBatchSize))
+                .description("Average producer batch size relative to the configured batch.size")
+                .register(meterRegistry);
+    }
+
+    public <K, V> CompletableFuture<SendResult<K, V>> record(String topic, CompletableFuture<SendResult<K, V>> send) {
+        long started = System.nanoTime();
+        return send.whenComplete((result, error) -> {
+            Timer.builder("kafka.producer.send")
+                    .description("Time from send until the broker acknowledged the record")
+                    .tag("topic", topic)
+                    .tag("outcome", error == null ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                Counter.builder("kafka.producer.send.failures")
+                        .tag("topic", topic)
+                        .register(meterRegistry)
+                        .increment();
+                log.error("Failed to send record to topic {}", topic, error);
+            }
+        });
+    }
+
+    private static int configuredBatchSize(KafkaTemplate<?, ?> kafkaTemplate) {
+        Object batchSize = kafkaTemplate.getProducerFactory().getConfigurationProperties().get(ProducerConfig.BATCH_SIZE_CONFIG);
+        return batchSize == null ? DEFAULT_BATCH_SIZE : Integer.parseInt(batchSize.toString());
+    }
+
+    private static double batchFillRatio(KafkaTemplate<?, ?> kafkaTemplate, int configuredBatchSize) {
+        return kafkaTemplate.metrics().entrySet().stream()
+                .filter(metric -> metric.getKey().group().equals("producer-metrics") && metric.getKey().name().equals("batch-size-avg"))
+                .map(metric -> metric.getValue().metricValue())
+                .filter(Number.class::isInstance)
+                .mapToDouble(value -> ((Number) value).doubleValue() / configuredBatchSize)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+}
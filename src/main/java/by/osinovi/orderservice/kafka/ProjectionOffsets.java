@@ -0,0 +1,66 @@
+package by.osinovi.orderservice.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tracks records handed to projector workers per partition, so that offsets are only committed
+ * up to the lowest record that is still being projected. Dispatch and commit happen on the consumer
+ * thread; completion is reported from the worker threads.
+ */
+final class ProjectionOffsets {
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+
+    void dispatched(ConsumerRecord<?, ?> record) {
+        partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), partition -> new PartitionOffsets(record.offset()))
+                .dispatched(record.offset());
+    }
+
+    void completed(ConsumerRecord<?, ?> record) {
+        PartitionOffsets offsets = partitions.get(new TopicPartition(record.topic(), record.partition()));
+        if (offsets != null) {
+            offsets.inFlight.remove(record.offset());
+        }
+    }
+
+    Map<TopicPartition, OffsetAndMetadata> committable(Collection<TopicPartition> assignment) {
+        partitions.keySet().retainAll(assignment);
+        Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        partitions.forEach((partition, offsets) -> {
+            long next = offsets.next();
+            if (next > offsets.committed) {
+                offsets.committed = next;
+                committable.put(partition, new OffsetAndMetadata(next));
+            }
+        });
+        return committable;
+    }
+
+    private static final class PartitionOffsets {
+        private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        private long highest;
+        private long committed;
+
+        private PartitionOffsets(long position) {
+            this.highest = position - 1;
+            this.committed = position;
+        }
+
+        private void dispatched(long offset) {
+            inFlight.add(offset);
+            highest = Math.max(highest, offset);
+        }
+
+        private long next() {
+            Long lowestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+            return lowestInFlight == null ? highest + 1 : Math.min(lowestInFlight, highest + 1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package by.osinovi.orderservice.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class ProjectionWorkers {
+    private final List<Worker> workers;
+    private final int queueCapacity;
+
+    public ProjectionWorkers(MeterRegistry meterRegistry, @Value("${order.projector.workers}") int workerCount,
+                             @Value("${order.projector.queue-capacity}") int queueCapacity) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("order.projector.workers must be at least 1, got " + workerCount);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("order.projector.queue-capacity must be at least 1, got " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        workers = new ArrayList<>(workerCount);
+        for (int index = 0; index < workerCount; index++) {
+            Worker worker = new Worker("projector-worker-" + index, new ArrayBlockingQueue<>(queueCapacity), new AtomicInteger());
+            Gauge.builder("order.projector.queue.depth", worker, Worker::depth)
+                    .description("Records queued on or being projected by a projector worker")
+                    .tag("worker", String.valueOf(index))
+                    .register(meterRegistry);
+            workers.add(worker);
+        }
+    }
+
+    public int size() {
+        return workers.size();
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public int workerFor(Long orderId) {
+        return Math.floorMod(Long.hashCode(orderId), workers.size());
+    }
+
+    public synchronized void start(Consumer<List<ConsumerRecord<String, Object>>> handler) {
+        for (Worker worker : workers) {
+            if (worker.thread == null) {
+                worker.thread = new Thread(() -> worker.run(handler), worker.name);
+                worker.thread.start();
+            }
+        }
+    }
+
+    public void submit(Long orderId, ConsumerRecord<String, Object> record) throws InterruptedException {
+        workers.get(workerFor(orderId)).queue.put(record);
+    }
+
+    public int remainingCapacity() {
+        return workers.stream()
+                .mapToInt(worker -> worker.queue.remainingCapacity())
+                .min()
+                .orElse(queueCapacity);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        workers.stream()
+                .filter(worker -> worker.thread != null)
+                .forEach(worker -> worker.thread.interrupt());
+    }
+
+    private static final class Worker {
+        private final String name;
+        private final BlockingQueue<ConsumerRecord<String, Object>> queue;
+        private final AtomicInteger inProgress;
+        private Thread thread;
+
+        private Worker(String name, BlockingQueue<ConsumerRecord<String, Object>> queue, AtomicInteger inProgress) {
+            this.name = name;
+            this.queue = queue;
+            this.inProgress = inProgress;
+        }
+
+        private double depth() {
+            return queue.size() + inProgress.get();
+        }
+
+        private void run(Consumer<List<ConsumerRecord<String, Object>>> handler) {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ConsumerRecord<String, Object>> batch = new ArrayList<>();
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                queue.drainTo(batch);
+                inProgress.set(batch.size());
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    log.error("{} dropped {} record(s) after an unhandled projection failure", name, batch.size(), e);
+                } finally {
+                    inProgress.set(0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package by.osinovi.orderservice.kafka;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.nio.charset.StandardCharsets;
+
+final class SerializedRecords {
+
+    private SerializedRecords() {
+    }
+
+    static ProducerRecord<String, byte[]> of(String topic, String key, byte[] payload, String typeId) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, typeId.getBytes(StandardCharsets.UTF_8));
+        return new ProducerRecord<>(topic, null, key, payload, headers);
+    }
+}
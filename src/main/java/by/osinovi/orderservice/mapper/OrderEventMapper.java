@@ -0,0 +1,38 @@
+package by.osinovi.orderservice.mapper;
+
+import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.entity.Item;
+import by.osinovi.orderservice.entity.Order;
+import by.osinovi.orderservice.entity.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderEventMapper {
+
+    public OrderEvent toEvent(Order order) {
+        List<OrderEvent.OrderItemData> itemsData = new ArrayList<>(order.getOrderItems().size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            Item item = orderItem.getItem();
+            itemsData.add(new OrderEvent.OrderItemData(item.getId(), item.getName(), orderItem.getQuantity(), item.getPrice()));
+            if (item.getPrice() != null) {
+                totalAmount = totalAmount.add(item.getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+            }
+        }
+
+        return OrderEvent.builder()
+                .orderId(order.getId())
+                .version(order.getVersion())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .creationDate(order.getCreationDate())
+                .paymentId(order.getPaymentId())
+                .totalAmount(totalAmount)
+                .items(itemsData)
+                .build();
+    }
+}
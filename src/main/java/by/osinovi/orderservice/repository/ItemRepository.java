@@ -2,7 +2,9 @@ package by.osinovi.orderservice.repository;
 
 import by.osinovi.orderservice.entity.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-
+    @Query(value = "SELECT version FROM catalog_version WHERE id = 1", nativeQuery = true)
+    long findCatalogVersion();
 }
\ No newline at end of file
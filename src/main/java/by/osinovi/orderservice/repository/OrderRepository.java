@@ -6,8 +6,27 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.status IN :statuses")
     List<Order> findByStatuses(@Param("statuses") List<String> statuses);
-}
\ No newline at end of file
+
+    @Query(value = "DELETE FROM orders WHERE id = ANY(CAST(:ids AS bigint[])) RETURNING id", nativeQuery = true)
+    List<Long> deleteAllByIdReturningIds(@Param("ids") Long[] ids);
+
+    @Query(value = """
+            UPDATE orders o SET status = :status, payment_id = p.payment_id, version = o.version + 1
+            FROM unnest(CAST(:orderIds AS bigint[]), CAST(:paymentIds AS uuid[])) AS p(order_id, payment_id)
+            WHERE o.id = p.order_id AND o.payment_id IS DISTINCT FROM p.payment_id
+              AND o.status IN ('CREATED', 'CHANGED', 'FAILED')
+            RETURNING o.id AS id, o.version AS version
+            """, nativeQuery = true)
+    List<AppliedPayment> applyPayments(@Param("status") String status, @Param("orderIds") Long[] orderIds, @Param("paymentIds") UUID[] paymentIds);
+
+    interface AppliedPayment {
+        Long getId();
+
+        Long getVersion();
+    }
+}
@@ -8,6 +8,7 @@ public interface ItemService {
     ItemResponseDto createItem(ItemRequestDto itemRequestDto);
     ItemResponseDto getItemById(Long id);
     List<ItemResponseDto> getAllItems();
+    String getCatalogVersion();
     ItemResponseDto updateItem(Long id, ItemRequestDto itemRequestDto);
     void deleteItem(Long id);
 }
\ No newline at end of file
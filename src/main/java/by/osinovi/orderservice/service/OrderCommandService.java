@@ -5,16 +5,24 @@ import by.osinovi.orderservice.dto.order.OrderRequestDto;
 import by.osinovi.orderservice.dto.order.OrderWithUserResponseDto;
 import jakarta.transaction.Transactional;
 
+import java.util.List;
+
 public interface OrderCommandService {
-    @Transactional
     OrderWithUserResponseDto createOrder(OrderRequestDto orderRequestDto);
 
-    @Transactional
     OrderWithUserResponseDto updateOrder(Long id, OrderRequestDto orderRequestDto);
 
+    List<Long> createOrders(List<OrderRequestDto> orderRequestDtos);
+
     @Transactional
     void deleteOrder(Long id);
 
+    @Transactional
+    List<Long> deleteOrders(List<Long> ids);
+
     @Transactional
     void processPayment(PaymentMessage paymentMessage);
+
+    @Transactional
+    void processPayments(List<PaymentMessage> paymentMessages);
 }
@@ -1,13 +1,30 @@
 package by.osinovi.orderservice.service;
 
 import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderSummary;
+import by.osinovi.orderservice.dto.page.CursorPageDto;
+import by.osinovi.orderservice.util.OrderStatus;
+import org.springframework.data.mongodb.core.query.Query;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Set;
 
 public interface OrderQueryService {
     OrderDocument getOrderById(Long id);
 
-    List<OrderDocument> getAllOrders();
+    OrderDocument getOrderById(Long id, Set<String> fields);
 
+    CursorPageDto<OrderSummary> getOrderSummaries(String cursor, Integer size);
 
+    CursorPageDto<OrderDocument> getOrders(String cursor, Integer size, Set<String> fields);
+
+    CursorPageDto<OrderSummary> getOrderSummariesByUser(Long userId, String cursor, Integer size);
+
+    CursorPageDto<OrderDocument> getOrdersByUser(Long userId, String cursor, Integer size, Set<String> fields);
+
+    Query exportQuery(OrderStatus status, LocalDate from, LocalDate to, Set<String> fields);
+
+    void exportOrders(Query query, OutputStream outputStream) throws IOException;
 }
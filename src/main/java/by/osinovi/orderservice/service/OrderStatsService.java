@@ -0,0 +1,16 @@
+package by.osinovi.orderservice.service;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.dto.order.OrderStatsDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface OrderStatsService {
+    void recordTransition(OrderDocument before, OrderDocument after);
+
+    void recordTransitions(Map<Long, OrderDocument> before, Map<Long, OrderDocument> after);
+
+    List<OrderStatsDto> getStats(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,11 @@
+package by.osinovi.orderservice.service;
+
+import by.osinovi.orderservice.util.OutboxEventType;
+
+import java.util.Map;
+
+public interface OutboxService {
+    void enqueue(OutboxEventType type, String messageKey, Object payload);
+
+    void enqueueAll(OutboxEventType type, Map<String, ?> payloadsByKey);
+}
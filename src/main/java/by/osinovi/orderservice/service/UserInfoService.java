@@ -2,7 +2,11 @@ package by.osinovi.orderservice.service;
 
 import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserInfoService {
     UserInfoResponseDto getUserInfoById(Long userId);
+    Map<Long, UserInfoResponseDto> getUserInfoByIds(Collection<Long> userIds);
     UserInfoResponseDto getUserInfoByEmail(String email);
 }
\ No newline at end of file
@@ -40,6 +40,11 @@ public class ItemServiceImpl implements ItemService {
                 .toList();
     }
 
+    @Override
+    public String getCatalogVersion() {
+        return "items-" + itemRepository.findCatalogVersion();
+    }
+
     @Override
     @Transactional
     public ItemResponseDto updateItem(Long id, ItemRequestDto itemRequestDto) {
@@ -1,33 +1,53 @@
 package by.osinovi.orderservice.service.impl;
 
 import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.dto.message.OrderPaymentEvent;
 import by.osinovi.orderservice.dto.message.PaymentMessage;
 import by.osinovi.orderservice.dto.order.OrderRequestDto;
 import by.osinovi.orderservice.dto.order.OrderResponseDto;
 import by.osinovi.orderservice.dto.order.OrderWithUserResponseDto;
+import by.osinovi.orderservice.dto.order_item.OrderItemRequestDto;
 import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
 import by.osinovi.orderservice.entity.Item;
 import by.osinovi.orderservice.entity.Order;
 import by.osinovi.orderservice.entity.OrderItem;
 import by.osinovi.orderservice.exception.NotFoundException;
-import by.osinovi.orderservice.kafka.OrderDeletedEventProducer;
-import by.osinovi.orderservice.kafka.OrderEventProducer;
-import by.osinovi.orderservice.kafka.OrderProducer;
-import by.osinovi.orderservice.mapper.OrderItemMapper;
+import by.osinovi.orderservice.mapper.OrderEventMapper;
 import by.osinovi.orderservice.mapper.OrderMapper;
 import by.osinovi.orderservice.repository.ItemRepository;
 import by.osinovi.orderservice.repository.OrderRepository;
 import by.osinovi.orderservice.service.OrderCommandService;
+import by.osinovi.orderservice.service.OutboxService;
 import by.osinovi.orderservice.service.UserInfoService;
 import by.osinovi.orderservice.util.OrderStatus;
+import by.osinovi.orderservice.util.OutboxEventType;
 import by.osinovi.orderservice.util.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,131 +56,241 @@ import java.util.stream.Collectors;
 public class OrderCommandServiceImpl implements OrderCommandService {
 
     private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
     private final ItemRepository itemRepository;
     private final OrderMapper orderMapper;
-    private final OrderItemMapper orderItemMapper;
+    private final OrderEventMapper orderEventMapper;
     private final UserInfoService userInfoService;
-    private final OrderProducer orderProducer;
-    private final OrderEventProducer orderEventProducer;
-    private final OrderDeletedEventProducer orderDeletedEventProducer;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService userLookupExecutor;
+    private final MeterRegistry meterRegistry;
 
+    @Value("${order.batch.chunk-size}")
+    private int batchChunkSize;
 
-    @Transactional
     @Override
     public OrderWithUserResponseDto createOrder(OrderRequestDto orderRequestDto) {
         Order order = orderMapper.toEntity(orderRequestDto);
-        order.setStatus(OrderStatus.CREATED);
-
-        List<OrderItem> processedItems = order.getOrderItems().stream()
-                .peek(orderItem -> {
-                    Item itemFromDb = itemRepository.findById(orderItem.getItem().getId())
-                            .orElseThrow(() -> new NotFoundException("Item not found with id: " + orderItem.getItem().getId()));
-                    orderItem.setItem(itemFromDb);
-                    orderItem.setOrder(order);
-                })
-                .toList();
-
-        order.setOrderItems(processedItems);
+        Map<Long, Integer> requestedItems = requestedItems(orderRequestDto.getOrderItems());
+        return withUser("create", orderRequestDto.getUserId(), () -> resolveItems(requestedItems.keySet()), itemsById -> {
+            order.setStatus(OrderStatus.CREATED);
 
-        Order saved = orderRepository.save(order);
+            attachItems(order, requestedItems, itemsById);
 
-        BigDecimal totalAmount = calculateTotalAmount(saved);
+            Order saved = orderRepository.save(order);
 
-        orderProducer.sendCreateOrderEvent(orderMapper.toMessage(saved, totalAmount));
+            enqueueOrderEvents(saved);
 
-        publishOrderEvent(saved, totalAmount);
-
-        UserInfoResponseDto user = userInfoService.getUserInfoById(saved.getUserId());
-        OrderResponseDto orderResponse = orderMapper.toResponse(saved);
-        return new OrderWithUserResponseDto(orderResponse, user);
+            return orderMapper.toResponse(saved);
+        });
     }
 
-    @Transactional
     @Override
     public OrderWithUserResponseDto updateOrder(Long id, OrderRequestDto orderRequestDto) {
-        Order existing = orderRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Order with ID " + id + " not found"));
-
-        existing.setUserId(orderRequestDto.getUserId());
-        existing.setCreationDate(orderRequestDto.getCreationDate());
-
-        existing.getOrderItems().clear();
-
-        List<OrderItem> newOrderItems = orderRequestDto.getOrderItems().stream()
-                .map(orderItemMapper::toEntity)
-                .peek(newOrderItem -> {
-                    Item itemFromDb = itemRepository.findById(newOrderItem.getItem().getId())
-                            .orElseThrow(() -> new NotFoundException("Item not found with id: " + newOrderItem.getItem().getId()));
-                    newOrderItem.setItem(itemFromDb);
-                    newOrderItem.setOrder(existing);
-                })
-                .toList();
+        Map<Long, Integer> requestedItems = requestedItems(orderRequestDto.getOrderItems());
+        return withUser("update", orderRequestDto.getUserId(), () -> resolveItems(requestedItems.keySet()), itemsById -> {
+            Order existing = orderRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Order with ID " + id + " not found"));
+            // bumped once on flush even when only item lines change; the flush still checks the loaded version
+            existing.setVersion(existing.getVersion() + 1);
 
-        existing.getOrderItems().addAll(newOrderItems);
-        existing.setStatus(OrderStatus.CHANGED);
+            existing.setUserId(orderRequestDto.getUserId());
+            existing.setCreationDate(orderRequestDto.getCreationDate());
 
-        Order updated = orderRepository.save(existing);
-        BigDecimal totalAmount = calculateTotalAmount(updated);
+            reconcileItems(existing, requestedItems, itemsById);
+            existing.setStatus(OrderStatus.CHANGED);
 
-        orderProducer.sendCreateOrderEvent(orderMapper.toMessage(updated, totalAmount));
+            Order updated = orderRepository.saveAndFlush(existing);
 
-        publishOrderEvent(updated, totalAmount);
+            enqueueOrderEvents(updated);
 
-        OrderResponseDto orderResponse = orderMapper.toResponse(updated);
-        UserInfoResponseDto user = userInfoService.getUserInfoById(updated.getUserId());
-        return new OrderWithUserResponseDto(orderResponse, user);
+            return orderMapper.toResponse(updated);
+        });
     }
 
     @Transactional
     @Override
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
+        if (orderRepository.deleteAllByIdReturningIds(new Long[]{id}).isEmpty()) {
             throw new NotFoundException("Order with ID " + id + " not found");
         }
-        orderRepository.deleteById(id);
-        orderDeletedEventProducer.sendCreateOrderDeletedEvent(id);
+        outboxService.enqueue(OutboxEventType.ORDER_DELETED, id.toString(), id);
+    }
+
+    @Transactional
+    @Override
+    public List<Long> deleteOrders(List<Long> ids) {
+        List<Long> deletedIds = orderRepository.deleteAllByIdReturningIds(ids.stream().distinct().toArray(Long[]::new));
+        outboxService.enqueueAll(OutboxEventType.ORDER_DELETED, deletedIds.stream()
+                .collect(Collectors.toMap(Object::toString, Function.identity(), (first, second) -> first, LinkedHashMap::new)));
+        log.info("Deleted {} of {} requested orders", deletedIds.size(), ids.size());
+        return deletedIds;
     }
 
     @Transactional
     @Override
     public void processPayment(PaymentMessage paymentMessage) {
+        processPayments(List.of(paymentMessage));
+    }
+
+    @Transactional
+    @Override
+    public void processPayments(List<PaymentMessage> paymentMessages) {
+        Map<Long, PaymentMessage> latestByOrder = paymentMessages.stream()
+                .collect(Collectors.toMap(PaymentMessage::getOrderId, Function.identity(), (earlier, later) -> later, LinkedHashMap::new));
+
+        Map<OrderStatus, List<PaymentMessage>> byOutcome = latestByOrder.values().stream()
+                .collect(Collectors.groupingBy(this::statusFor, () -> new EnumMap<>(OrderStatus.class), Collectors.toList()));
+
+        Map<String, OrderPaymentEvent> events = new LinkedHashMap<>();
+        byOutcome.forEach((status, payments) -> {
+            Long[] orderIds = payments.stream().map(PaymentMessage::getOrderId).toArray(Long[]::new);
+            UUID[] paymentIds = payments.stream().map(PaymentMessage::getId).toArray(UUID[]::new);
+
+            List<OrderRepository.AppliedPayment> applied = orderRepository.applyPayments(status.name(), orderIds, paymentIds);
+            if (applied.size() < payments.size()) {
+                log.warn("{} of {} payments with status {} were already applied, reference missing orders or found orders already paid", payments.size() - applied.size(), payments.size(), status);
+            }
+            log.info("Updated {} orders with status {}", applied.size(), status);
+            applied.forEach(order -> events.put(order.getId().toString(), OrderPaymentEvent.builder()
+                    .orderId(order.getId())
+                    .version(order.getVersion())
+                    .status(status)
+                    .paymentId(latestByOrder.get(order.getId()).getId())
+                    .build()));
+        });
+        if (!events.isEmpty()) {
+            outboxService.enqueueAll(OutboxEventType.ORDER_PAYMENT, events);
+        }
+    }
+
+    private OrderStatus statusFor(PaymentMessage paymentMessage) {
+        return paymentMessage.getStatus().equals(PaymentStatus.SUCCESS) ? OrderStatus.PAID : OrderStatus.FAILED;
+    }
+
+    private OrderWithUserResponseDto withUser(String operation, Long userId, Supplier<Map<Long, Item>> resolve,
+                                              Function<Map<Long, Item>, OrderResponseDto> write) {
+        long lookupStarted = System.nanoTime();
+        AtomicLong lookupFinished = new AtomicLong();
+        CompletableFuture<UserInfoResponseDto> user = CompletableFuture
+                .supplyAsync(() -> userInfoService.getUserInfoById(userId), userLookupExecutor)
+                .whenComplete((result, error) -> lookupFinished.set(System.nanoTime()));
 
-        orderRepository.findById(paymentMessage.getOrderId()).ifPresentOrElse(order -> {
-            order.setStatus(paymentMessage.getStatus().equals(PaymentStatus.SUCCESS) ? OrderStatus.PAID : OrderStatus.FAILED);
-            order.setPaymentId(paymentMessage.getId());
-            orderRepository.save(order);
-            log.info("Updated order {} with status {}", paymentMessage.getOrderId(), order.getStatus());
+        Map<Long, Item> itemsById = resolve.get();
+        long resolved = System.nanoTime();
 
+        UserInfoResponseDto userInfo = awaitUser(user);
+        Timer.builder("order.user.lookup.overlap")
+                .description("Time the user lookup ran concurrently with item resolution")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(Math.max(0, Math.min(lookupFinished.get(), resolved) - lookupStarted), TimeUnit.NANOSECONDS);
+        Timer.builder("order.user.lookup.wait")
+                .description("Time spent waiting for the user lookup after items were resolved, before the write transaction opens")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(System.nanoTime() - resolved, TimeUnit.NANOSECONDS);
 
-        }, () -> log.error("Cannot find order with id {} for starting processing", paymentMessage.getOrderId()));
+        OrderResponseDto orderResponse = transactionTemplate.execute(status -> write.apply(itemsById));
+        return new OrderWithUserResponseDto(orderResponse, userInfo);
     }
 
-    private BigDecimal calculateTotalAmount(Order order) {
-        return order.getOrderItems().stream()
-                .filter(item -> item.getItem() != null && item.getItem().getPrice() != null)
-                .map(item -> item.getItem().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private UserInfoResponseDto awaitUser(CompletableFuture<UserInfoResponseDto> user) {
+        try {
+            return user.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Long> createOrders(List<OrderRequestDto> orderRequestDtos) {
+        return transactionTemplate.execute(status -> {
+            List<Long> orderIds = new ArrayList<>(orderRequestDtos.size());
+            for (int from = 0; from < orderRequestDtos.size(); from += batchChunkSize) {
+                List<OrderRequestDto> chunk = orderRequestDtos.subList(from, Math.min(from + batchChunkSize, orderRequestDtos.size()));
+                List<Order> saved = saveChunk(chunk);
+                orderRepository.flush();
+
+                saved.forEach(order -> orderIds.add(order.getId()));
+                entityManager.clear();
+                log.info("Persisted batch chunk of {} orders", saved.size());
+            }
+            return orderIds;
+        });
+    }
+
+    private List<Order> saveChunk(List<OrderRequestDto> chunk) {
+        List<Map<Long, Integer>> requestedItems = chunk.stream()
+                .map(orderRequestDto -> requestedItems(orderRequestDto.getOrderItems()))
+                .toList();
+        Map<Long, Item> itemsById = resolveItems(requestedItems.stream()
+                .flatMap(items -> items.keySet().stream())
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        List<Order> orders = new ArrayList<>(chunk.size());
+        for (int index = 0; index < chunk.size(); index++) {
+            Order order = orderMapper.toEntity(chunk.get(index));
+            order.setStatus(OrderStatus.CREATED);
+            attachItems(order, requestedItems.get(index), itemsById);
+            orders.add(order);
+        }
+        List<Order> saved = orderRepository.saveAll(orders);
+        saved.forEach(this::enqueueOrderEvents);
+        return saved;
+    }
+
+    private void reconcileItems(Order order, Map<Long, Integer> requestedItems, Map<Long, Item> itemsById) {
+        Map<Long, Integer> remaining = new LinkedHashMap<>(requestedItems);
+
+        // a second line for the same item finds nothing left to claim and is dropped, collapsing old duplicates
+        Iterator<OrderItem> lines = order.getOrderItems().iterator();
+        while (lines.hasNext()) {
+            OrderItem line = lines.next();
+            Integer quantity = remaining.remove(line.getItem().getId());
+            if (quantity == null) {
+                lines.remove();
+            } else if (!quantity.equals(line.getQuantity())) {
+                line.setQuantity(quantity);
+            }
+        }
+
+        remaining.forEach((itemId, quantity) ->
+                order.getOrderItems().add(new OrderItem(null, order, itemsById.get(itemId), quantity)));
     }
 
-    private void publishOrderEvent(Order order, BigDecimal totalAmount) {
-        List<OrderEvent.OrderItemData> itemsData = order.getOrderItems().stream()
-                .map(oi -> OrderEvent.OrderItemData.builder()
-                        .itemId(oi.getItem().getId())
-                        .itemName(oi.getItem().getName())
-                        .price(oi.getItem().getPrice())
-                        .quantity(oi.getQuantity())
-                        .build())
-                .collect(Collectors.toList());
+    private void attachItems(Order order, Map<Long, Integer> requestedItems, Map<Long, Item> itemsById) {
+        order.getOrderItems().clear();
+        requestedItems.forEach((itemId, quantity) ->
+                order.getOrderItems().add(new OrderItem(null, order, itemsById.get(itemId), quantity)));
+    }
 
-        OrderEvent event = OrderEvent.builder()
-                .orderId(order.getId())
-                .userId(order.getUserId())
-                .status(order.getStatus())
-                .creationDate(order.getCreationDate())
-                .totalAmount(totalAmount)
-                .items(itemsData)
-                .build();
+    private Map<Long, Integer> requestedItems(List<OrderItemRequestDto> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.toMap(OrderItemRequestDto::getItemId, OrderItemRequestDto::getQuantity, Integer::sum, LinkedHashMap::new));
+    }
+
+    private Map<Long, Item> resolveItems(Set<Long> itemIds) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Long> missingIds = itemIds.stream()
+                .filter(itemId -> !itemsById.containsKey(itemId))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Items not found with ids: " + missingIds);
+        }
+        return itemsById;
+    }
 
-        orderEventProducer.sendCreateOrderEventToMongo(order,event);
+    private void enqueueOrderEvents(Order order) {
+        OrderEvent event = orderEventMapper.toEvent(order);
+        String messageKey = order.getId().toString();
+        outboxService.enqueue(OutboxEventType.ORDER_MESSAGE, messageKey, orderMapper.toMessage(order, event.getTotalAmount()));
+        outboxService.enqueue(OutboxEventType.ORDER_EVENT, messageKey, event);
     }
 }
\ No newline at end of file
@@ -36,12 +36,14 @@ public class OrderItemServiceImpl implements OrderItemService {
     }
 
     @Override
+    @Transactional
     public OrderItemResponseDto getOrderItemById(Long id) {
         OrderItem orderItem = orderItemRepository.findById(id).orElseThrow(() -> new NotFoundException("Order item with ID " + id + " not found"));
         return orderItemMapper.toResponse(orderItem);
     }
 
     @Override
+    @Transactional
     public List<OrderItemResponseDto> getOrderItemsByOrderId(Long orderId) {
         return orderItemRepository.findByOrderId(orderId).stream()
                 .map(orderItemMapper::toResponse)
@@ -1,27 +1,213 @@
 package by.osinovi.orderservice.service.impl;
 
 import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderSummary;
+import by.osinovi.orderservice.dto.page.CursorPageDto;
 import by.osinovi.orderservice.exception.NotFoundException;
+import by.osinovi.orderservice.exception.ValidationException;
 import by.osinovi.orderservice.repository.OrderMongoRepository;
 import by.osinovi.orderservice.service.OrderQueryService;
+import by.osinovi.orderservice.util.CacheNames;
+import by.osinovi.orderservice.util.CursorCodec;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderQueryServiceImpl implements OrderQueryService {
 
+    private static final String[] SUMMARY_FIELDS = {"id", "status", "creationDate", "totalAmount"};
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "status", "creationDate", "paymentId", "totalAmount", "user", "items");
+
     private final OrderMongoRepository mongoRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.query.page-size.default}")
+    private int defaultPageSize;
+
+    @Value("${order.query.page-size.max}")
+    private int maxPageSize;
+
+    @Value("${order.export.cursor-batch-size}")
+    private int exportCursorBatchSize;
 
     @Override
+    @Cacheable(cacheNames = CacheNames.ORDERS, key = "#id")
     public OrderDocument getOrderById(Long id) {
         return mongoRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Order with " + id + " not found in read model"));
     }
 
     @Override
-    public List<OrderDocument> getAllOrders() {
-        return mongoRepository.findAll();
+    public OrderDocument getOrderById(Long id, Set<String> fields) {
+        Query query = project(new Query(Criteria.where("_id").is(id)), fields);
+        OrderDocument order = mongoTemplate.findOne(query, OrderDocument.class);
+        if (order == null) {
+            throw new NotFoundException("Order with " + id + " not found in read model");
+        }
+        return order;
+    }
+
+    @Override
+    public CursorPageDto<OrderSummary> getOrderSummaries(String cursor, Integer size) {
+        return page(idPageQuery(cursor), OrderSummary.class, pageSize(size), OrderSummary::getId);
+    }
+
+    @Override
+    public CursorPageDto<OrderDocument> getOrders(String cursor, Integer size, Set<String> fields) {
+        return page(project(idPageQuery(cursor), fields), OrderDocument.class, pageSize(size), OrderDocument::getId);
+    }
+
+    @Override
+    public CursorPageDto<OrderSummary> getOrderSummariesByUser(Long userId, String cursor, Integer size) {
+        return page(userPageQuery(userId, cursor), OrderSummary.class, pageSize(size), OrderSummary::getCreationDate, OrderSummary::getId);
+    }
+
+    @Override
+    public CursorPageDto<OrderDocument> getOrdersByUser(Long userId, String cursor, Integer size, Set<String> fields) {
+        Query query = project(userPageQuery(userId, cursor), fields);
+        if (fields != null) {
+            query.fields().include("creationDate");
+        }
+        return page(query, OrderDocument.class, pageSize(size), OrderDocument::getCreationDate, OrderDocument::getId);
+    }
+
+    @Override
+    public Query exportQuery(OrderStatus status, LocalDate from, LocalDate to, Set<String> fields) {
+        return project(exportFilter(status, from, to), fields);
+    }
+
+    @Override
+    public void exportOrders(Query query, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderDocument.class);
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+             Stream<OrderDocument> orders = mongoTemplate.stream(query, OrderDocument.class)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<OrderDocument> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                exported++;
+            }
+        }
+        log.info("Exported {} orders matching {}", exported, query.getQueryObject());
+    }
+
+    private Query idPageQuery(String cursor) {
+        Long afterId = cursor == null ? Long.MIN_VALUE : CursorCodec.decodeId(cursor);
+        return new Query(Criteria.where("_id").gt(afterId)).with(Sort.by(Sort.Direction.ASC, "_id"));
+    }
+
+    private Query userPageQuery(Long userId, String cursor) {
+        Criteria criteria = Criteria.where("user.id").is(userId);
+        if (cursor != null) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            LocalDate creationDate = parseCursorDate(cursor, position[0]);
+            Long id = parseCursorId(cursor, position[1]);
+            criteria = criteria.orOperator(
+                    Criteria.where("creationDate").lt(creationDate),
+                    Criteria.where("creationDate").is(creationDate).and("_id").lt(id));
+        }
+        return new Query(criteria).with(Sort.by(Sort.Direction.DESC, "creationDate", "_id"));
+    }
+
+    @SafeVarargs
+    private <T> CursorPageDto<T> page(Query query, Class<T> type, int pageSize, Function<T, Object>... cursorParts) {
+        if (type == OrderSummary.class) {
+            query.fields().include(SUMMARY_FIELDS);
+        }
+        List<T> rows = mongoTemplate.find(query.limit(pageSize + 1), type, mongoTemplate.getCollectionName(OrderDocument.class));
+        if (rows.size() <= pageSize) {
+            return new CursorPageDto<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        T last = page.get(pageSize - 1);
+        return new CursorPageDto<>(page, CursorCodec.encode(Arrays.stream(cursorParts).map(part -> part.apply(last)).toArray()));
+    }
+
+    private Query project(Query query, Set<String> fields) {
+        if (fields == null) {
+            return query;
+        }
+        if (fields.isEmpty() || !PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new ValidationException("fields must be a subset of " + PROJECTABLE_FIELDS);
+        }
+        query.fields().include(fields.toArray(String[]::new));
+        return query;
+    }
+
+    private Query exportFilter(OrderStatus status, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("Export date range start " + from + " is after its end " + to);
+        }
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(exportCursorBatchSize)
+                .noCursorTimeout();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (from != null || to != null) {
+            Criteria creationDate = Criteria.where("creationDate");
+            if (from != null) {
+                creationDate.gte(from);
+            }
+            if (to != null) {
+                creationDate.lte(to);
+            }
+            query.addCriteria(creationDate);
+        }
+        return query;
+    }
+
+    private LocalDate parseCursorDate(String cursor, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private Long parseCursorId(String cursor, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new ValidationException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
     }
-    }
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package by.osinovi.orderservice.service.impl;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderRollupDocument;
+import by.osinovi.orderservice.dto.order.OrderStatsDto;
+import by.osinovi.orderservice.exception.ValidationException;
+import by.osinovi.orderservice.service.OrderStatsService;
+import by.osinovi.orderservice.util.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OrderStatsServiceImpl implements OrderStatsService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void recordTransition(OrderDocument before, OrderDocument after) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        apply(deltas, before, -1);
+        apply(deltas, after, 1);
+        write(deltas);
+    }
+
+    @Override
+    public void recordTransitions(Map<Long, OrderDocument> before, Map<Long, OrderDocument> after) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        before.values().forEach(order -> apply(deltas, order, -1));
+        after.values().forEach(order -> apply(deltas, order, 1));
+        write(deltas);
+    }
+
+    private void write(Map<String, Delta> deltas) {
+        deltas.values().removeIf(Delta::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderRollupDocument.class);
+        deltas.forEach((id, delta) -> bulk.upsert(
+                new Query(Criteria.where("_id").is(id)),
+                new Update()
+                        .inc("count", delta.count)
+                        .inc("revenue", new Decimal128(delta.revenue))
+                        .setOnInsert("day", delta.day)
+                        .setOnInsert("status", delta.status)));
+        bulk.execute();
+    }
+
+    @Override
+    public List<OrderStatsDto> getStats(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("Stats date range start " + from + " is after its end " + to);
+        }
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "day", "status"));
+        if (from != null || to != null) {
+            Criteria day = Criteria.where("day");
+            if (from != null) {
+                day.gte(from);
+            }
+            if (to != null) {
+                day.lte(to);
+            }
+            query.addCriteria(day);
+        }
+        return mongoTemplate.find(query, OrderRollupDocument.class).stream()
+                .filter(rollup -> rollup.getCount() != 0)
+                .map(rollup -> new OrderStatsDto(rollup.getDay(), rollup.getStatus(), rollup.getCount(), rollup.getRevenue()))
+                .toList();
+    }
+
+    private void apply(Map<String, Delta> deltas, OrderDocument order, int sign) {
+        if (order == null || order.getCreationDate() == null || order.getStatus() == null) {
+            return;
+        }
+        BigDecimal amount = order.getTotalAmount() == null ? BigDecimal.ZERO : order.getTotalAmount();
+        Delta delta = deltas.computeIfAbsent(order.getCreationDate() + "|" + order.getStatus(),
+                id -> new Delta(order.getCreationDate(), order.getStatus()));
+        delta.count += sign;
+        delta.revenue = delta.revenue.add(amount.multiply(BigDecimal.valueOf(sign)));
+    }
+
+    private static final class Delta {
+        private final LocalDate day;
+        private final OrderStatus status;
+        private long count;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private Delta(LocalDate day, OrderStatus status) {
+            this.day = day;
+            this.status = status;
+        }
+
+        private boolean isZero() {
+            return count == 0 && revenue.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package by.osinovi.orderservice.service.impl;
+
+import by.osinovi.orderservice.entity.OutboxEvent;
+import by.osinovi.orderservice.repository.OutboxEventRepository;
+import by.osinovi.orderservice.service.OutboxService;
+import by.osinovi.orderservice.util.OutboxEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(OutboxEventType type, String messageKey, Object payload) {
+        outboxEventRepository.save(toEvent(type, messageKey, payload, Instant.now()));
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueueAll(OutboxEventType type, Map<String, ?> payloadsByKey) {
+        Instant now = Instant.now();
+        outboxEventRepository.saveAll(payloadsByKey.entrySet().stream()
+                .map(entry -> toEvent(type, entry.getKey(), entry.getValue(), now))
+                .toList());
+    }
+
+    private OutboxEvent toEvent(OutboxEventType type, String messageKey, Object payload, Instant createdAt) {
+        try {
+            return new OutboxEvent(null, type, messageKey, objectMapper.writeValueAsString(payload), createdAt, 0, null, null);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing " + type + " outbox payload for key: " + messageKey, e);
+        }
+    }
+}
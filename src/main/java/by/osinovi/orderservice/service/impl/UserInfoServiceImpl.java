@@ -4,25 +4,50 @@ import by.osinovi.orderservice.client.UserClient;
 import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
 import by.osinovi.orderservice.exception.NotFoundException;
 import by.osinovi.orderservice.service.UserInfoService;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import feign.FeignException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserInfoServiceImpl implements UserInfoService {
 
     private final UserClient userClient;
+    private final ExecutorService userLookupExecutor;
+    private final LoadingCache<Long, UserInfoResponseDto> usersById;
+
+    public UserInfoServiceImpl(UserClient userClient, ExecutorService userLookupExecutor, MeterRegistry meterRegistry,
+                               @Value("${user.info.cache.spec}") String cacheSpec) {
+        this.userClient = userClient;
+        this.userLookupExecutor = userLookupExecutor;
+        this.usersById = Caffeine.from(cacheSpec)
+                .executor(userLookupExecutor)
+                .build(new UserLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "userInfo");
+    }
 
     @Override
     public UserInfoResponseDto getUserInfoById(Long userId) {
-        try {
-            return userClient.getUserInfoById(userId);
-        } catch (FeignException.NotFound e) {
-            throw new NotFoundException("User with ID " + userId + " not found");
-        } catch (Exception e) {
-            throw new RuntimeException("Error getting user by ID: " + userId, e);
-        }
+        return usersById.get(userId);
+    }
+
+    @Override
+    public Map<Long, UserInfoResponseDto> getUserInfoByIds(Collection<Long> userIds) {
+        return usersById.getAll(userIds);
     }
 
     @Override
@@ -35,4 +60,41 @@ public class UserInfoServiceImpl implements UserInfoService {
             throw new RuntimeException("Error getting user by email: " + email, e);
         }
     }
-}
\ No newline at end of file
+
+    private UserInfoResponseDto fetchById(Long userId) {
+        try {
+            return userClient.getUserInfoById(userId);
+        } catch (FeignException.NotFound e) {
+            throw new NotFoundException("User with ID " + userId + " not found");
+        } catch (Exception e) {
+            throw new RuntimeException("Error getting user by ID: " + userId, e);
+        }
+    }
+
+    private class UserLoader implements CacheLoader<Long, UserInfoResponseDto> {
+
+        @Override
+        public UserInfoResponseDto load(Long userId) {
+            return fetchById(userId);
+        }
+
+        @Override
+        public Map<Long, UserInfoResponseDto> loadAll(Set<? extends Long> userIds) {
+            Map<Long, CompletableFuture<UserInfoResponseDto>> lookups = new LinkedHashMap<>();
+            userIds.forEach(userId -> lookups.put(userId, CompletableFuture.supplyAsync(() -> fetchById(userId), userLookupExecutor)));
+
+            Map<Long, UserInfoResponseDto> users = new LinkedHashMap<>();
+            lookups.forEach((userId, lookup) -> {
+                try {
+                    users.put(userId, lookup.join());
+                } catch (CompletionException e) {
+                    if (!(e.getCause() instanceof NotFoundException)) {
+                        throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+                    }
+                    log.warn("User with ID {} not found", userId);
+                }
+            });
+            return users;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package by.osinovi.orderservice.util;
+
+public final class CacheNames {
+    public static final String ORDERS = "orders";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,44 @@
+package by.osinovi.orderservice.util;
+
+import by.osinovi.orderservice.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class CursorCodec {
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            if (!raw.isEmpty()) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
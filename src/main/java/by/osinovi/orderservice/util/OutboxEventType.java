@@ -0,0 +1,5 @@
+package by.osinovi.orderservice.util;
+
+public enum OutboxEventType {
+    ORDER_MESSAGE,ORDER_EVENT,ORDER_PAYMENT,ORDER_DELETED
+}
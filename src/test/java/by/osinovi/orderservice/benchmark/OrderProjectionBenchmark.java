@@ -0,0 +1,179 @@
+package by.osinovi.orderservice.benchmark;
+
+import by.osinovi.orderservice.config.MongoIndexManager;
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderRollupDocument;
+import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.dto.message.OrderPaymentEvent;
+import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
+import by.osinovi.orderservice.kafka.OrderProjector;
+import by.osinovi.orderservice.kafka.ProjectionWorkers;
+import by.osinovi.orderservice.service.UserInfoService;
+import by.osinovi.orderservice.service.impl.OrderStatsServiceImpl;
+import by.osinovi.orderservice.util.CacheNames;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.util.backoff.FixedBackOff;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the same order-events topic into a fresh Mongo (Testcontainers, needs Docker) through the
+ * per-record listener path and through the batch path; the score is projected events per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class OrderProjectionBenchmark {
+    private static final int ORDERS = 1000;
+    private static final int ORDERS_PER_WINDOW = 100;
+    private static final int EVENTS = ORDERS * 3;
+    private static final int MAX_POLL_RECORDS = 500;
+
+    @Param({"single", "batch"})
+    private String mode;
+
+    private MongoDBContainer mongo;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ProjectionWorkers projectionWorkers;
+    private OrderProjector orderProjector;
+    private List<ConsumerRecord<String, Object>> records;
+
+    @Setup(Level.Trial)
+    public void startMongo() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        mongoClient = MongoClients.create(mongo.getConnectionString());
+        mongoTemplate = new MongoTemplate(mongoClient, "orders");
+        projectionWorkers = new ProjectionWorkers(new SimpleMeterRegistry(), 1, MAX_POLL_RECORDS);
+        orderProjector = new OrderProjector(mongoTemplate, new KnownUsers(), new OrderStatsServiceImpl(mongoTemplate),
+                new ConcurrentMapCacheManager(CacheNames.ORDERS), projectionWorkers, new FixedBackOff(0, 0),
+                new KafkaListenerEndpointRegistry());
+        records = topic();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetReadModel() {
+        mongoTemplate.dropCollection(OrderDocument.class);
+        mongoTemplate.dropCollection(OrderRollupDocument.class);
+        new MongoIndexManager(mongoTemplate).afterSingletonsInstantiated();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMongo() {
+        projectionWorkers.shutdown();
+        mongoClient.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void replay() {
+        if ("single".equals(mode)) {
+            records.forEach(orderProjector::projectOrderEventRecord);
+        } else {
+            for (int from = 0; from < records.size(); from += MAX_POLL_RECORDS) {
+                orderProjector.projectBatch(records.subList(from, Math.min(from + MAX_POLL_RECORDS, records.size())));
+            }
+        }
+    }
+
+    /**
+     * Orders are created, changed and paid in windows of {@value #ORDERS_PER_WINDOW}, so a poll holds
+     * several versions of some orders and a single version of others, as a busy topic would.
+     */
+    private static List<ConsumerRecord<String, Object>> topic() {
+        List<ConsumerRecord<String, Object>> topic = new ArrayList<>(EVENTS);
+        for (long window = 0; window < ORDERS; window += ORDERS_PER_WINDOW) {
+            for (long orderId = window + 1; orderId <= window + ORDERS_PER_WINDOW; orderId++) {
+                topic.add(record(topic.size(), orderEvent(orderId, 1L, OrderStatus.CREATED)));
+            }
+            for (long orderId = window + 1; orderId <= window + ORDERS_PER_WINDOW; orderId++) {
+                topic.add(record(topic.size(), orderEvent(orderId, 2L, OrderStatus.CHANGED)));
+            }
+            for (long orderId = window + 1; orderId <= window + ORDERS_PER_WINDOW; orderId++) {
+                topic.add(record(topic.size(), new OrderPaymentEvent(orderId, 3L, OrderStatus.PAID, UUID.randomUUID())));
+            }
+        }
+        return topic;
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>("order-events", 0, offset, null, value);
+    }
+
+    private static OrderEvent orderEvent(Long orderId, Long version, OrderStatus status) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .version(version)
+                .userId(orderId % 50)
+                .status(status)
+                .creationDate(LocalDate.of(2025, 10, 1).plusDays(orderId % 30))
+                .totalAmount(new BigDecimal("59.97"))
+                .items(List.of(OrderEvent.OrderItemData.builder()
+                        .itemId(orderId % 20)
+                        .itemName("Item " + orderId % 20)
+                        .price(new BigDecimal("19.99"))
+                        .quantity(3)
+                        .build()))
+                .build();
+    }
+
+    private static final class KnownUsers implements UserInfoService {
+        @Override
+        public UserInfoResponseDto getUserInfoById(Long userId) {
+            return new UserInfoResponseDto(userId, "User", "No" + userId, LocalDate.of(1990, 1, 1), "user" + userId + "@example.com");
+        }
+
+        @Override
+        public Map<Long, UserInfoResponseDto> getUserInfoByIds(Collection<Long> userIds) {
+            return userIds.stream().collect(Collectors.toMap(Function.identity(), this::getUserInfoById));
+        }
+
+        @Override
+        public UserInfoResponseDto getUserInfoByEmail(String email) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderProjectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
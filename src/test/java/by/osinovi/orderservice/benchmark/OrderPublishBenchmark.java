@@ -0,0 +1,112 @@
+package by.osinovi.orderservice.benchmark;
+
+import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.dto.message.OrderMessage;
+import by.osinovi.orderservice.entity.Item;
+import by.osinovi.orderservice.entity.Order;
+import by.osinovi.orderservice.entity.OrderItem;
+import by.osinovi.orderservice.mapper.OrderEventMapper;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPublishBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int lineItems;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final OrderEventMapper orderEventMapper = new OrderEventMapper();
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order();
+        order.setId(1L);
+        order.setUserId(100L);
+        order.setStatus(OrderStatus.CREATED);
+        order.setCreationDate(LocalDate.now());
+        order.setOrderItems(IntStream.range(0, lineItems)
+                .mapToObj(i -> new OrderItem((long) i, order, new Item((long) i, "Item " + i, new BigDecimal("19.99")), i % 5 + 1))
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void legacyPath(Blackhole blackhole) throws Exception {
+        BigDecimal totalAmount = order.getOrderItems().stream()
+                .filter(item -> item.getItem() != null && item.getItem().getPrice() != null)
+                .map(item -> item.getItem().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        OrderMessage message = new OrderMessage(order.getId(), order.getUserId(), totalAmount);
+        List<OrderEvent.OrderItemData> itemsData = order.getOrderItems().stream()
+                .map(oi -> OrderEvent.OrderItemData.builder()
+                        .itemId(oi.getItem().getId())
+                        .itemName(oi.getItem().getName())
+                        .price(oi.getItem().getPrice())
+                        .quantity(oi.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+        OrderEvent event = OrderEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .creationDate(order.getCreationDate())
+                .totalAmount(totalAmount)
+                .items(itemsData)
+                .build();
+
+        String storedMessage = objectMapper.writeValueAsString(message);
+        String storedEvent = objectMapper.writeValueAsString(event);
+        blackhole.consume(objectMapper.writeValueAsBytes(objectMapper.readValue(storedMessage, OrderMessage.class)));
+        blackhole.consume(objectMapper.writeValueAsBytes(objectMapper.readValue(storedEvent, OrderEvent.class)));
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) throws Exception {
+        OrderEvent event = orderEventMapper.toEvent(order);
+        OrderMessage message = new OrderMessage(order.getId(), order.getUserId(), event.getTotalAmount());
+
+        String storedMessage = objectMapper.writeValueAsString(message);
+        String storedEvent = objectMapper.writeValueAsString(event);
+        blackhole.consume(storedMessage.getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(storedEvent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderPublishBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package by.osinovi.orderservice.benchmark;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderSummary;
+import by.osinovi.orderservice.dto.page.CursorPageDto;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderReadPayloadBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1", "10", "100"})
+    private int lineItems;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private CursorPageDto<OrderDocument> fullPage;
+    private CursorPageDto<OrderSummary> summaryPage;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<OrderDocument> documents = IntStream.range(0, PAGE_SIZE).mapToObj(this::document).toList();
+        fullPage = new CursorPageDto<>(documents, "next");
+        summaryPage = new CursorPageDto<>(documents.stream().map(this::summary).toList(), "next");
+        System.out.printf("%n[lineItems=%d] full page: %d bytes, summary page: %d bytes%n",
+                lineItems, objectMapper.writeValueAsBytes(fullPage).length, objectMapper.writeValueAsBytes(summaryPage).length);
+    }
+
+    @Benchmark
+    public byte[] fullDocuments() throws Exception {
+        return objectMapper.writeValueAsBytes(fullPage);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    private OrderDocument document(int id) {
+        OrderDocument.UserInfo user = new OrderDocument.UserInfo();
+        user.setId(100L);
+        user.setName("John");
+        user.setSurname("Doe");
+        user.setEmail("john.doe@example.com");
+
+        OrderDocument document = new OrderDocument();
+        document.setId((long) id);
+        document.setStatus(OrderStatus.PAID);
+        document.setCreationDate(LocalDate.of(2025, 10, 18));
+        document.setPaymentId(UUID.randomUUID());
+        document.setTotalAmount(new BigDecimal("199.90"));
+        document.setUser(user);
+        document.setItems(IntStream.range(0, lineItems).mapToObj(i -> {
+            OrderDocument.OrderItemInfo item = new OrderDocument.OrderItemInfo();
+            item.setItemId((long) i);
+            item.setItemName("Item " + i);
+            item.setQuantity(i % 5 + 1);
+            item.setItemPrice(new BigDecimal("19.99"));
+            return item;
+        }).toList());
+        return document;
+    }
+
+    private OrderSummary summary(OrderDocument document) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(document.getId());
+        summary.setStatus(document.getStatus());
+        summary.setCreationDate(document.getCreationDate());
+        summary.setTotalAmount(document.getTotalAmount());
+        return summary;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderReadPayloadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,49 @@
+package by.osinovi.orderservice.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoIndexManagerTests {
+
+    @Test
+    void indexDrift_reportsMissingChangedAndUndeclaredIndexes() {
+        Map<String, String> declared = Map.of(
+                "status", "{status:1}",
+                "creationDate", "{creationDate:1}",
+                "user_creation_date_id", "{user.id:1,creationDate:-1,_id:-1}");
+        Map<String, String> existing = Map.of(
+                "status", "{status:1}",
+                "user_creation_date_id", "{user.id:1,creationDate:1}",
+                "legacy_total", "{totalAmount:1}");
+
+        assertThat(MongoIndexManager.indexDrift(declared, existing)).containsExactlyInAnyOrder(
+                "declared index creationDate {creationDate:1} is missing",
+                "index user_creation_date_id has keys {user.id:1,creationDate:1} but {user.id:1,creationDate:-1,_id:-1} is declared",
+                "index legacy_total {totalAmount:1} is not declared by the service");
+    }
+
+    @Test
+    void indexDrift_emptyWhenIndexesMatch() {
+        Map<String, String> indexes = Map.of("status", "{status:1}");
+
+        assertThat(MongoIndexManager.indexDrift(indexes, indexes)).isEmpty();
+    }
+
+    @Test
+    void usesCollectionScan_inspectsNestedWinningPlan() {
+        Document collectionScan = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "SORT", "inputStage": {"stage": "COLLSCAN"}}}}
+                """);
+        Document indexScan = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "FETCH", "inputStage": {"stage": "IXSCAN", "indexName": "status"}},
+                 "rejectedPlans": [{"stage": "COLLSCAN"}]}}
+                """);
+
+        assertThat(MongoIndexManager.usesCollectionScan(collectionScan)).isTrue();
+        assertThat(MongoIndexManager.usesCollectionScan(indexScan)).isFalse();
+    }
+}
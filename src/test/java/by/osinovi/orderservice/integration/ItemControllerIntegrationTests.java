@@ -101,6 +101,34 @@ class ItemControllerIntegrationTests extends BaseIntegrationTest {
                 .body("$", hasSize(greaterThanOrEqualTo(2)));
     }
 
+    @Test
+    void getAllItems_MatchingETag_ReturnsNotModifiedUntilCatalogChanges() {
+        createTestItem();
+        String etag = given()
+                .when()
+                .get("/api/items")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", is(notNullValue()))
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/items")
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        createTestItem();
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/items")
+                .then()
+                .statusCode(HttpStatus.OK.value());
+    }
+
     @Test
     void updateItem_ValidRequest_UpdatesItem() {
         Long itemId = createTestItem();
@@ -1,5 +1,6 @@
 package by.osinovi.orderservice.integration;
 
+import by.osinovi.orderservice.dto.order.OrderBatchDeleteRequestDto;
 import by.osinovi.orderservice.dto.order.OrderRequestDto;
 import by.osinovi.orderservice.dto.order_item.OrderItemRequestDto;
 import by.osinovi.orderservice.entity.Item;
@@ -23,17 +24,21 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
@@ -60,7 +65,7 @@ class OrderControllerIntegrationTests extends BaseIntegrationTest {
         orderItemRepository.deleteAll();
         orderRepository.deleteAll();
         itemRepository.deleteAll();
-        doNothing().when(orderProducer).sendCreateOrderEvent(any());
+        when(orderProducer.sendCreateOrderEvent(anyString(), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
     }
 
     @DynamicPropertySource
@@ -174,7 +179,7 @@ class OrderControllerIntegrationTests extends BaseIntegrationTest {
                 .get("/api/orders")
                 .then()
                 .statusCode(HttpStatus.OK.value())
-                .body("size()", greaterThan(0));
+                .body("items.size()", greaterThan(0));
     }
 
     @Test
@@ -322,6 +327,24 @@ class OrderControllerIntegrationTests extends BaseIntegrationTest {
                 .statusCode(HttpStatus.NOT_FOUND.value());
     }
 
+    @Test
+    void deleteOrders_RemovesExistingOrdersAndTheirItems() {
+        Long firstId = createTestOrder();
+        Long secondId = createTestOrder();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new OrderBatchDeleteRequestDto(List.of(firstId, secondId, 99999L)))
+                .when()
+                .post("/api/orders/bulk-delete")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("deleted", equalTo(2));
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(orderItemRepository.count()).isZero();
+    }
+
     private Item createTestItem() {
         Item item = new Item();
         item.setName("Test Item");
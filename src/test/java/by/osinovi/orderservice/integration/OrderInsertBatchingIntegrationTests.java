@@ -0,0 +1,101 @@
+package by.osinovi.orderservice.integration;
+
+import by.osinovi.orderservice.entity.Item;
+import by.osinovi.orderservice.entity.Order;
+import by.osinovi.orderservice.entity.OrderItem;
+import by.osinovi.orderservice.integration.config.BaseIntegrationTest;
+import by.osinovi.orderservice.repository.ItemRepository;
+import by.osinovi.orderservice.repository.OrderItemRepository;
+import by.osinovi.orderservice.repository.OrderRepository;
+import by.osinovi.orderservice.util.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OrderInsertBatchingIntegrationTests extends BaseIntegrationTest {
+
+    private static final int ORDER_ITEMS = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", RecordingStatementInspector.class::getName);
+    }
+
+    @Test
+    void saveOrderWithFiftyItems_insertsInJdbcBatches() {
+        Item item = itemRepository.save(new Item(null, "Test Item", new BigDecimal("19.99")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = new Order();
+            order.setUserId(100L);
+            order.setStatus(OrderStatus.CREATED);
+            order.setCreationDate(LocalDate.now());
+            IntStream.range(0, ORDER_ITEMS).forEach(i -> order.getOrderItems().add(new OrderItem(null, order, item, i + 1)));
+            orderRepository.save(order);
+        });
+
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ORDER_ITEMS + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements.size());
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into orders ")).hasSize(1);
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into order_items ")).hasSize(1);
+        assertThat(statements).filteredOn(sql -> !sql.startsWith("insert into "))
+                .allSatisfy(sql -> assertThat(sql).contains("nextval"));
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+}
@@ -55,5 +55,6 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         registry.add("spring.liquibase.enabled", () -> "false");
         registry.add("user.service.url", () -> "http://localhost:" + wireMockServer.port());
+        registry.add("mongo.index-check.enabled", () -> "true");
     }
 }
\ No newline at end of file
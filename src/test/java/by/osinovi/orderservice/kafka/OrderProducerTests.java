@@ -1,18 +1,21 @@
 package by.osinovi.orderservice.kafka;
 
-import by.osinovi.orderservice.dto.message.OrderMessage;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
@@ -20,7 +23,10 @@ import static org.mockito.Mockito.verify;
 class OrderProducerTests {
 
     @Mock
-    private KafkaTemplate<String, OrderMessage> orderKafkaTemplate;
+    private KafkaTemplate<String, byte[]> serializedKafkaTemplate;
+
+    @Mock
+    private ProducerSendMetrics producerSendMetrics;
 
     @InjectMocks
     private OrderProducer orderProducer;
@@ -31,22 +37,28 @@ class OrderProducerTests {
     }
 
     @Test
-    void sendCreateOrderEvent_success() {
-        OrderMessage orderMessage = new OrderMessage(1L, 100L, BigDecimal.valueOf(50.0));
+    void sendCreateOrderEvent_sendsSerializedPayloadUnderOrderKey() {
+        byte[] payload = "{\"orderId\":1}".getBytes(StandardCharsets.UTF_8);
 
-        orderProducer.sendCreateOrderEvent(orderMessage);
+        orderProducer.sendCreateOrderEvent("1", payload);
 
-        verify(orderKafkaTemplate).send(eq("test-orders-topic"), eq("1"), eq(orderMessage));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, byte[]>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(serializedKafkaTemplate).send(record.capture());
+        assertThat(record.getValue().topic()).isEqualTo("test-orders-topic");
+        assertThat(record.getValue().key()).isEqualTo("1");
+        assertThat(record.getValue().value()).isEqualTo(payload);
+        verify(producerSendMetrics).record(eq("test-orders-topic"), any());
     }
 
     @Test
-    void sendCreateOrderEvent_withNullOrderId() {
-        OrderMessage orderMessage = new OrderMessage(null, 100L, BigDecimal.valueOf(50.0));
-
-        try {
-            orderProducer.sendCreateOrderEvent(orderMessage);
-        } catch (NullPointerException e) {
-            assertThat(e.getMessage()).contains("Cannot invoke \"java.lang.Long.toString()\"");
-        }
+    void sendCreateOrderEvent_tagsRecordWithOrderMessageTypeId() {
+        orderProducer.sendCreateOrderEvent("1", new byte[0]);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, byte[]>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(serializedKafkaTemplate).send(record.capture());
+        assertThat(record.getValue().headers().lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+                .isEqualTo("orderMsg".getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,414 @@
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.dto.message.OrderPaymentEvent;
+import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
+import by.osinovi.orderservice.service.OrderStatsService;
+import by.osinovi.orderservice.service.UserInfoService;
+import by.osinovi.orderservice.util.CacheNames;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderProjectorTests {
+
+    private static final TopicPartition DELETIONS = new TopicPartition("order-deleted-events", 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserInfoService userInfoService;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Mock
+    private Consumer<String, Object> consumer;
+
+    private Cache ordersCache;
+    private ProjectionWorkers projectionWorkers;
+    private OrderProjector orderProjector;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.ORDERS);
+        ordersCache = cacheManager.getCache(CacheNames.ORDERS);
+        projectionWorkers = new ProjectionWorkers(new SimpleMeterRegistry(), 1, 4);
+        orderProjector = projector(projectionWorkers, cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectionWorkers.shutdown();
+    }
+
+    @Test
+    void projectOrderPayment_movesRollupAndEvictsCachedOrder() {
+        OrderDocument previous = rollupView(OrderStatus.CREATED);
+        ordersCache.put(1L, new OrderDocument());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(OrderDocument.class))).thenReturn(previous);
+
+        orderProjector.projectOrderPayment(paymentEvent(1L, 3L, OrderStatus.PAID));
+
+        ArgumentCaptor<OrderDocument> updated = ArgumentCaptor.forClass(OrderDocument.class);
+        verify(orderStatsService).recordTransition(eq(previous), updated.capture());
+        assertThat(updated.getValue().getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(updated.getValue().getTotalAmount()).isEqualByComparingTo("25.00");
+        assertThat(ordersCache.get(1L)).isNull();
+    }
+
+    @Test
+    void projectOrderPayment_setsOnlyStatusPaymentIdAndVersionInPlace() {
+        OrderPaymentEvent payment = paymentEvent(1L, 3L, OrderStatus.PAID);
+
+        orderProjector.projectOrderPayment(payment);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), eq(OrderDocument.class));
+        verify(mongoTemplate, never()).save(any());
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", 1L)
+                .containsEntry("version", new Document("$not", new Document("$gte", 3L)));
+        assertThat(query.getValue().getFieldsObject()).containsOnlyKeys("status", "creationDate", "totalAmount");
+        assertThat(update.getValue().getUpdateObject())
+                .isEqualTo(new Document("$set", new Document("status", OrderStatus.PAID)
+                        .append("paymentId", payment.getPaymentId())
+                        .append("version", 3L)));
+    }
+
+    @Test
+    void projectBatch_appliesPaymentWithoutTransferringTheDocument() {
+        OrderPaymentEvent payment = paymentEvent(1L, 3L, OrderStatus.FAILED);
+        when(userInfoService.getUserInfoByIds(Set.of())).thenReturn(Map.of());
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 1, 0, List.of(), List.of()));
+
+        orderProjector.projectBatch(List.of(record("order-domain-events", payment)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(query.capture(), update.capture());
+        verify(bulkOperations, never()).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", 1L)
+                .containsEntry("version", new Document("$not", new Document("$gte", 3L)));
+        assertThat(update.getValue().getUpdateObject())
+                .isEqualTo(new Document("$set", new Document("status", OrderStatus.FAILED)
+                        .append("paymentId", payment.getPaymentId())
+                        .append("version", 3L)));
+    }
+
+    @Test
+    void projectOrderPayment_staleVersionLeavesRollupUntouched() {
+        orderProjector.projectOrderPayment(paymentEvent(1L, 3L, OrderStatus.FAILED));
+
+        verify(orderStatsService, never()).recordTransition(any(), any());
+        verify(mongoTemplate, never()).findAndReplace(any(Query.class), any(OrderDocument.class), any(FindAndReplaceOptions.class));
+    }
+
+    @Test
+    void projectOrderEventRecord_routesPaymentsToInPlaceUpdate() {
+        orderProjector.projectOrderEventRecord(record("order-domain-events", paymentEvent(1L, 3L, OrderStatus.PAID)));
+
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), eq(OrderDocument.class));
+        verify(userInfoService, never()).getUserInfoByIds(any());
+    }
+
+    @Test
+    void projectBatch_paymentAheadOfLaggingProjectionIsNotUndoneByLateChange() {
+        OrderDocument lagging = rollupView(OrderStatus.CREATED);
+        lagging.setId(1L);
+        lagging.setVersion(0L);
+        OrderPaymentEvent paid = paymentEvent(1L, 3L, OrderStatus.PAID);
+        OrderEvent lateChange = orderEvent(1L, OrderStatus.CHANGED);
+        lateChange.setVersion(2L);
+        when(userInfoService.getUserInfoByIds(Set.of(10L))).thenReturn(Map.of());
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenReturn(List.of(lagging));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 1, 0, List.of(), List.of()));
+
+        orderProjector.projectBatch(List.of(
+                record("order-domain-events", paid),
+                record("order-domain-events", lateChange)));
+
+        ArgumentCaptor<Query> gate = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Object> replacement = ArgumentCaptor.forClass(Object.class);
+        verify(bulkOperations).replaceOne(gate.capture(), replacement.capture(), any(FindAndReplaceOptions.class));
+        assertThat(gate.getValue().getQueryObject()).containsEntry("version", new Document("$not", new Document("$gte", 3L)));
+        OrderDocument projected = (OrderDocument) replacement.getValue();
+        assertThat(projected.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(projected.getPaymentId()).isEqualTo(paid.getPaymentId());
+        assertThat(projected.getVersion()).isEqualTo(3L);
+        verify(bulkOperations, never()).updateOne(any(Query.class), any(Update.class));
+
+        OrderDocument paidProjection = rollupView(OrderStatus.PAID);
+        paidProjection.setId(1L);
+        paidProjection.setVersion(3L);
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenReturn(List.of(paidProjection));
+
+        orderProjector.projectBatch(List.of(record("order-domain-events", lateChange)));
+
+        verify(bulkOperations, times(1)).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        verify(orderStatsService).recordTransitions(Map.of(1L, paidProjection), Map.of(1L, paidProjection));
+    }
+
+    @Test
+    void projectOrderDeletion_removesFromRollupAndEvictsCachedOrder() {
+        OrderDocument previous = rollupView(OrderStatus.PAID);
+        ordersCache.put(2L, new OrderDocument());
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(OrderDocument.class))).thenReturn(previous);
+
+        orderProjector.projectOrderDeletion(2L);
+
+        verify(orderStatsService).recordTransition(previous, null);
+        assertThat(ordersCache.get(2L)).isNull();
+    }
+
+    @Test
+    void projectBatch_collapsesEventsPerOrderIntoOneBulkWrite() {
+        OrderEvent created = orderEvent(1L, OrderStatus.CREATED);
+        created.setVersion(0L);
+        OrderPaymentEvent paid = paymentEvent(1L, 1L, OrderStatus.PAID);
+        OrderPaymentEvent failedSecond = paymentEvent(2L, 1L, OrderStatus.FAILED);
+        OrderDocument previousSecond = rollupView(OrderStatus.CREATED);
+        previousSecond.setId(2L);
+        previousSecond.setVersion(0L);
+        ordersCache.put(3L, new OrderDocument());
+        when(userInfoService.getUserInfoByIds(Set.of(10L))).thenReturn(Map.of(10L, new UserInfoResponseDto(10L, "John", "Doe", null, "john@example.com")));
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenReturn(List.of(previousSecond));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 1, 0, List.of(), List.of()));
+
+        orderProjector.projectBatch(List.of(
+                record("order-domain-events", created),
+                record("order-domain-events", paid),
+                record("order-domain-events", failedSecond),
+                record("order-domain-events", orderEvent(3L, OrderStatus.CREATED)),
+                record("order-deleted-events", 3L)));
+
+        ArgumentCaptor<Object> replacement = ArgumentCaptor.forClass(Object.class);
+        verify(bulkOperations).replaceOne(any(Query.class), replacement.capture(), any(FindAndReplaceOptions.class));
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).remove(any(Query.class));
+        verify(bulkOperations).execute();
+        verify(userInfoService, never()).getUserInfoById(any());
+        OrderDocument projected = (OrderDocument) replacement.getValue();
+        assertThat(projected.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(projected.getPaymentId()).isEqualTo(paid.getPaymentId());
+        assertThat(projected.getUser().getEmail()).isEqualTo("john@example.com");
+
+        ArgumentCaptor<Map<Long, OrderDocument>> after = ArgumentCaptor.captor();
+        verify(orderStatsService).recordTransitions(eq(Map.of(2L, previousSecond)), after.capture());
+        assertThat(after.getValue()).containsOnlyKeys(1L, 2L);
+        assertThat(after.getValue().get(2L).getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(ordersCache.get(1L).get()).isSameAs(projected);
+        assertThat(ordersCache.get(3L)).isNull();
+    }
+
+    @Test
+    void projectOrderEvent_dropsEventOlderThanProjection() {
+        OrderEvent event = orderEvent(1L, OrderStatus.CREATED);
+        event.setVersion(0L);
+        ordersCache.put(1L, new OrderDocument());
+        when(userInfoService.getUserInfoByIds(Set.of(10L))).thenReturn(Map.of(10L, new UserInfoResponseDto(10L, "John", "Doe", null, "john@example.com")));
+        when(mongoTemplate.findAndReplace(any(Query.class), any(OrderDocument.class), any(FindAndReplaceOptions.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        orderProjector.projectOrderEvent(event);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndReplace(query.capture(), any(OrderDocument.class), any(FindAndReplaceOptions.class));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("version", new Document("$not", new Document("$gte", 0L)));
+        verify(orderStatsService, never()).recordTransition(any(), any());
+        assertThat(ordersCache.get(1L)).isNotNull();
+    }
+
+    @Test
+    void projectBatch_keepsNewestEventAndSkipsOnesTheProjectionAlreadyPassed() {
+        OrderEvent changed = orderEvent(1L, OrderStatus.CHANGED);
+        changed.setVersion(2L);
+        OrderEvent lateCreated = orderEvent(1L, OrderStatus.CREATED);
+        lateCreated.setVersion(0L);
+        OrderEvent staleForSecond = orderEvent(2L, OrderStatus.CREATED);
+        staleForSecond.setVersion(0L);
+        OrderDocument paidSecond = rollupView(OrderStatus.PAID);
+        paidSecond.setId(2L);
+        paidSecond.setVersion(1L);
+        when(userInfoService.getUserInfoByIds(Set.of(10L))).thenReturn(Map.of());
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenReturn(List.of(paidSecond));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        orderProjector.projectBatch(List.of(
+                record("order-domain-events", changed),
+                record("order-domain-events", lateCreated),
+                record("order-domain-events", staleForSecond)));
+
+        ArgumentCaptor<Object> replacement = ArgumentCaptor.forClass(Object.class);
+        verify(bulkOperations, times(1)).replaceOne(any(Query.class), replacement.capture(), any(FindAndReplaceOptions.class));
+        OrderDocument projected = (OrderDocument) replacement.getValue();
+        assertThat(projected.getId()).isEqualTo(1L);
+        assertThat(projected.getStatus()).isEqualTo(OrderStatus.CHANGED);
+        assertThat(projected.getVersion()).isEqualTo(2L);
+        verify(orderStatsService).recordTransitions(Map.of(2L, paidSecond), Map.of(1L, projected, 2L, paidSecond));
+    }
+
+    @Test
+    void dispatchBatch_pausesContainerOnceWorkerQueueCannotTakeAnotherPoll() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(kafkaListenerEndpointRegistry.getListenerContainer("order-projector")).thenReturn(container);
+
+        orderProjector.dispatchBatch(List.of(record("order-deleted-events", 0, 1L), record("order-deleted-events", 1, 1L)), consumer);
+        verify(container, never()).pause();
+
+        orderProjector.dispatchBatch(List.of(record("order-deleted-events", 2, 1L)), consumer);
+        verify(container).pause();
+        verify(consumer, never()).commitAsync(any(), any());
+    }
+
+    @Test
+    void projectWithRetry_commitsOnlyUpToLowestRecordStillBeingProjected() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()));
+        when(consumer.assignment()).thenReturn(Set.of(DELETIONS));
+        ConsumerRecord<String, Object> slow = record("order-deleted-events", 0, 1L);
+        ConsumerRecord<String, Object> fast = record("order-deleted-events", 1, 2L);
+        orderProjector.dispatchBatch(List.of(slow, fast), consumer);
+
+        orderProjector.projectWithRetry(List.of(fast));
+        orderProjector.commitWhileIdle(idleEvent());
+        verify(consumer, never()).commitAsync(any(), any());
+
+        orderProjector.projectWithRetry(List.of(slow));
+        orderProjector.commitWhileIdle(idleEvent());
+        verify(consumer).commitAsync(eq(Map.of(DELETIONS, new OffsetAndMetadata(2))), any());
+    }
+
+    @Test
+    void projectWithRetry_skipsRecordsOnceRetriesAreExhausted() {
+        when(mongoTemplate.find(any(Query.class), eq(OrderDocument.class))).thenThrow(new IllegalStateException("mongo unavailable"));
+        when(consumer.assignment()).thenReturn(Set.of(DELETIONS));
+        ConsumerRecord<String, Object> poison = record("order-deleted-events", 0, 1L);
+        orderProjector.dispatchBatch(List.of(poison), consumer);
+
+        orderProjector.projectWithRetry(List.of(poison));
+
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(OrderDocument.class));
+        orderProjector.commitWhileIdle(idleEvent());
+        verify(consumer).commitAsync(eq(Map.of(DELETIONS, new OffsetAndMetadata(1))), any());
+    }
+
+    @Test
+    void projectOrderEvent_projectsUnknownUserByIdLikeBatchMode() {
+        OrderEvent event = orderEvent(1L, OrderStatus.CREATED);
+        when(userInfoService.getUserInfoByIds(Set.of(10L))).thenReturn(Map.of());
+
+        orderProjector.projectOrderEvent(event);
+
+        ArgumentCaptor<OrderDocument> projected = ArgumentCaptor.forClass(OrderDocument.class);
+        verify(mongoTemplate).findAndReplace(any(Query.class), projected.capture(), any(FindAndReplaceOptions.class));
+        assertThat(projected.getValue().getUser().getId()).isEqualTo(10L);
+        assertThat(projected.getValue().getUser().getEmail()).isNull();
+        verify(userInfoService, never()).getUserInfoById(any());
+    }
+
+    private OrderProjector projector(ProjectionWorkers workers, ConcurrentMapCacheManager cacheManager) {
+        OrderProjector projector = new OrderProjector(mongoTemplate, userInfoService, orderStatsService, cacheManager, workers,
+                new FixedBackOff(0, 1), kafkaListenerEndpointRegistry);
+        ReflectionTestUtils.setField(projector, "maxPollRecords", 2);
+        return projector;
+    }
+
+    private ListenerContainerIdleEvent idleEvent() {
+        return new ListenerContainerIdleEvent(this, this, 1000, "order-projector-0", Set.of(DELETIONS), consumer, true);
+    }
+
+    private ConsumerRecord<String, Object> record(String topic, Object value) {
+        return record(topic, 0L, value);
+    }
+
+    private ConsumerRecord<String, Object> record(String topic, long offset, Object value) {
+        return new ConsumerRecord<>(topic, 0, offset, null, value);
+    }
+
+    private OrderEvent orderEvent(Long orderId, OrderStatus status) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .userId(10L)
+                .status(status)
+                .creationDate(LocalDate.of(2025, 10, 18))
+                .totalAmount(new BigDecimal("25.00"))
+                .items(List.of())
+                .build();
+    }
+
+    private OrderPaymentEvent paymentEvent(Long orderId, Long version, OrderStatus status) {
+        return OrderPaymentEvent.builder()
+                .orderId(orderId)
+                .version(version)
+                .status(status)
+                .paymentId(UUID.randomUUID())
+                .build();
+    }
+
+    private OrderDocument rollupView(OrderStatus status) {
+        OrderDocument document = new OrderDocument();
+        document.setStatus(status);
+        document.setCreationDate(LocalDate.of(2025, 10, 18));
+        document.setTotalAmount(new BigDecimal("25.00"));
+        return document;
+    }
+}
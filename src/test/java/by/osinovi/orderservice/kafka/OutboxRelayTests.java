@@ -0,0 +1,119 @@
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.entity.OutboxEvent;
+import by.osinovi.orderservice.repository.OutboxEventRepository;
+import by.osinovi.orderservice.util.OutboxEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTests {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderProducer orderProducer;
+
+    @Mock
+    private OrderEventProducer orderEventProducer;
+
+    @Mock
+    private OrderDeletedEventProducer orderDeletedEventProducer;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, transactionTemplate, orderProducer, orderEventProducer, orderDeletedEventProducer);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 3);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void relay_sendsStoredPayloadsWithoutReserializing() {
+        String message = "{\"orderId\":5,\"userId\":100,\"totalAmount\":10.00}";
+        String event = "{\"orderId\":5,\"userId\":100,\"status\":\"CREATED\",\"items\":[]}";
+        String payment = "{\"orderId\":5,\"version\":2,\"status\":\"PAID\"}";
+        List<OutboxEvent> events = List.of(
+                event(1L, OutboxEventType.ORDER_MESSAGE, "5", message),
+                event(2L, OutboxEventType.ORDER_EVENT, "5", event),
+                event(3L, OutboxEventType.ORDER_PAYMENT, "5", payment),
+                event(4L, OutboxEventType.ORDER_DELETED, "7", "7"));
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(events);
+        when(orderProducer.sendCreateOrderEvent(eq("5"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(orderEventProducer.sendCreateOrderEventToMongo(eq("5"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(orderEventProducer.sendOrderPaymentEvent(eq("5"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(orderDeletedEventProducer.sendCreateOrderDeletedEvent(eq("7"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(orderProducer).sendCreateOrderEvent("5", message.getBytes(StandardCharsets.UTF_8));
+        verify(orderEventProducer).sendCreateOrderEventToMongo("5", event.getBytes(StandardCharsets.UTF_8));
+        verify(orderEventProducer).sendOrderPaymentEvent("5", payment.getBytes(StandardCharsets.UTF_8));
+        verify(orderDeletedEventProducer).sendCreateOrderDeletedEvent("7", "7".getBytes(StandardCharsets.UTF_8));
+        verify(outboxEventRepository).deleteAllInBatch(events);
+    }
+
+    @Test
+    void relay_keepsFailedRowForRetryAndCountsTheAttempt() {
+        OutboxEvent failed = event(1L, OutboxEventType.ORDER_DELETED, "7", "7");
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(failed));
+        when(orderDeletedEventProducer.sendCreateOrderDeletedEvent(eq("7"), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyList());
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("broker down");
+        assertThat(failed.getParkedAt()).isNull();
+    }
+
+    @Test
+    void relay_parksRowThatKeepsFailingAndStillRelaysTheRest() {
+        OutboxEvent poison = event(1L, OutboxEventType.ORDER_EVENT, "5", "{\"orderId\":5}");
+        poison.setAttempts(2);
+        OutboxEvent healthy = event(2L, OutboxEventType.ORDER_DELETED, "7", "7");
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(poison, healthy));
+        when(orderEventProducer.sendCreateOrderEventToMongo(eq("5"), any(byte[].class)))
+                .thenThrow(new IllegalArgumentException("record too large"));
+        when(orderDeletedEventProducer.sendCreateOrderDeletedEvent(eq("7"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).deleteAllInBatch(List.of(healthy));
+        assertThat(poison.getAttempts()).isEqualTo(3);
+        assertThat(poison.getLastError()).contains("record too large");
+        assertThat(poison.getParkedAt()).isNotNull();
+    }
+
+    private OutboxEvent event(Long id, OutboxEventType type, String key, String payload) {
+        return new OutboxEvent(id, type, key, payload, Instant.now(), 0, null, null);
+    }
+}
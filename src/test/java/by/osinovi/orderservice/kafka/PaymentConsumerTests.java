@@ -1,46 +1,71 @@
-//package by.osinovi.orderservice.kafka;
-//
-//import by.osinovi.orderservice.dto.message.PaymentMessage;
-//import by.osinovi.orderservice.service.OrderService;
-//import org.junit.jupiter.api.Test;
-//import org.junit.jupiter.api.extension.ExtendWith;
-//import org.mockito.InjectMocks;
-//import org.mockito.Mock;
-//import org.mockito.junit.jupiter.MockitoExtension;
-//
-//import java.math.BigDecimal;
-//import java.util.UUID;
-//
-//import static org.mockito.Mockito.verify;
-//
-//@ExtendWith(MockitoExtension.class)
-//class PaymentConsumerTests {
-//
-//    @Mock
-//    private OrderService orderService;
-//
-//    @InjectMocks
-//    private PaymentConsumer paymentConsumer;
-//
-//    @Test
-//    void handleCreatePayment_success() {
-//        UUID paymentId = UUID.randomUUID();
-//        PaymentMessage paymentMessage = new PaymentMessage(paymentId, 1L, 100L,
-//                by.osinovi.orderservice.util.PaymentStatus.SUCCESS, BigDecimal.valueOf(50.0));
-//
-//        paymentConsumer.handleCreatePayment(paymentMessage);
-//
-//        verify(orderService).processPayment(paymentMessage);
-//    }
-//
-//    @Test
-//    void handleCreatePayment_failed() {
-//        UUID paymentId = UUID.randomUUID();
-//        PaymentMessage paymentMessage = new PaymentMessage(paymentId, 1L, 100L,
-//                by.osinovi.orderservice.util.PaymentStatus.FAILED, BigDecimal.valueOf(50.0));
-//
-//        paymentConsumer.handleCreatePayment(paymentMessage);
-//
-//        verify(orderService).processPayment(paymentMessage);
-//    }
-//}
\ No newline at end of file
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.dto.message.PaymentMessage;
+import by.osinovi.orderservice.service.OrderCommandService;
+import by.osinovi.orderservice.util.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentConsumerTests {
+
+    @Mock
+    private OrderCommandService orderCommandService;
+
+    private PaymentConsumer paymentConsumer;
+
+    @BeforeEach
+    void setUp() {
+        paymentConsumer = new PaymentConsumer(orderCommandService, new PaymentDeduplicator(new SimpleMeterRegistry(), 100));
+    }
+
+    @Test
+    void handleCreatePayments_processesBatch() {
+        PaymentMessage paid = new PaymentMessage(UUID.randomUUID(), 1L, 100L, PaymentStatus.SUCCESS, BigDecimal.valueOf(50.0));
+        PaymentMessage failed = new PaymentMessage(UUID.randomUUID(), 2L, 100L, PaymentStatus.FAILED, BigDecimal.valueOf(50.0));
+
+        paymentConsumer.handleCreatePayments(List.of(paid, failed));
+
+        verify(orderCommandService).processPayments(List.of(paid, failed));
+    }
+
+    @Test
+    void handleCreatePayments_skipsRedeliveredBatch() {
+        PaymentMessage paid = new PaymentMessage(UUID.randomUUID(), 1L, 100L, PaymentStatus.SUCCESS, BigDecimal.valueOf(50.0));
+        paymentConsumer.handleCreatePayments(List.of(paid));
+
+        paymentConsumer.handleCreatePayments(List.of(paid));
+
+        verify(orderCommandService).processPayments(anyList());
+    }
+
+    @Test
+    void handleCreatePayments_failedBatchIsNotMarkedProcessed() {
+        PaymentMessage paid = new PaymentMessage(UUID.randomUUID(), 1L, 100L, PaymentStatus.SUCCESS, BigDecimal.valueOf(50.0));
+        doThrow(new RuntimeException("db down")).doNothing()
+                .when(orderCommandService).processPayments(List.of(paid));
+
+        assertThatThrownBy(() -> paymentConsumer.handleCreatePayments(List.of(paid)))
+                .isInstanceOf(RuntimeException.class);
+        paymentConsumer.handleCreatePayments(List.of(paid));
+
+        verify(orderCommandService, times(2)).processPayments(List.of(paid));
+        verify(orderCommandService, never()).processPayment(any());
+    }
+}
@@ -0,0 +1,59 @@
+package by.osinovi.orderservice.kafka;
+
+import by.osinovi.orderservice.dto.message.PaymentMessage;
+import by.osinovi.orderservice.util.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentDeduplicatorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentDeduplicator paymentDeduplicator = new PaymentDeduplicator(meterRegistry, 2);
+
+    @Test
+    void filterNew_skipsProcessedAndRepeatedPayments() {
+        PaymentMessage processed = payment(1L);
+        PaymentMessage fresh = payment(2L);
+        paymentDeduplicator.markProcessed("consumer", List.of(processed));
+
+        List<PaymentMessage> result = paymentDeduplicator.filterNew("consumer", List.of(processed, fresh, fresh));
+
+        assertThat(result).containsExactly(fresh);
+        assertThat(meterRegistry.get("payments.duplicates.skipped").tag("consumer", "consumer").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void markProcessed_evictsLeastRecentlyUsedBeyondCapacity() {
+        PaymentMessage first = payment(1L);
+        PaymentMessage second = payment(2L);
+        PaymentMessage third = payment(3L);
+
+        paymentDeduplicator.markProcessed("consumer", List.of(first, second, third));
+
+        assertThat(paymentDeduplicator.filterNew("consumer", List.of(first, second, third))).containsExactly(first);
+        assertThat(paymentDeduplicator.filterNew("other", List.of(second))).containsExactly(second);
+    }
+
+    @Test
+    void filterNew_refreshesRecencyOfRedeliveredPayments() {
+        PaymentMessage first = payment(1L);
+        PaymentMessage second = payment(2L);
+        PaymentMessage third = payment(3L);
+        paymentDeduplicator.markProcessed("consumer", List.of(first, second));
+
+        paymentDeduplicator.filterNew("consumer", List.of(first));
+        paymentDeduplicator.markProcessed("consumer", List.of(third));
+
+        assertThat(paymentDeduplicator.filterNew("consumer", List.of(first, second, third))).containsExactly(second);
+    }
+
+    private PaymentMessage payment(Long orderId) {
+        return new PaymentMessage(UUID.randomUUID(), orderId, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,63 @@
+package by.osinovi.orderservice.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProducerSendMetricsTests {
+
+    @Mock
+    private KafkaTemplate<String, Long> kafkaTemplate;
+
+    @Mock
+    private ProducerFactory<String, Long> producerFactory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProducerSendMetrics producerSendMetrics;
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.getProducerFactory()).thenReturn(producerFactory);
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of());
+        producerSendMetrics = new ProducerSendMetrics(meterRegistry, kafkaTemplate);
+    }
+
+    @Test
+    void record_successfulSend_recordsLatencyPerTopic() {
+        CompletableFuture<SendResult<String, Long>> send = new CompletableFuture<>();
+
+        producerSendMetrics.record("orders-topic", send);
+        send.complete(null);
+
+        assertThat(meterRegistry.get("kafka.producer.send").tag("topic", "orders-topic").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("kafka.producer.send.failures").counter()).isNull();
+    }
+
+    @Test
+    void record_failedSend_countsFailure() {
+        CompletableFuture<SendResult<String, Long>> send = new CompletableFuture<>();
+
+        CompletableFuture<SendResult<String, Long>> recorded = producerSendMetrics.record("orders-topic", send);
+        send.completeExceptionally(new IllegalStateException("broker down"));
+
+        assertThat(recorded).isCompletedExceptionally();
+        assertThat(meterRegistry.get("kafka.producer.send.failures").tag("topic", "orders-topic").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package by.osinovi.orderservice.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectionOffsetsTests {
+
+    private final ProjectionOffsets offsets = new ProjectionOffsets();
+    private final TopicPartition events = new TopicPartition("order-events", 0);
+    private final TopicPartition deletions = new TopicPartition("order-deleted-events", 0);
+
+    @Test
+    void committable_stopsAtLowestRecordStillInFlight() {
+        List<ConsumerRecord<String, Object>> records = List.of(record(events, 5), record(events, 6), record(events, 7));
+        records.forEach(offsets::dispatched);
+
+        offsets.completed(records.get(1));
+        offsets.completed(records.get(2));
+        assertThat(offsets.committable(Set.of(events))).isEmpty();
+
+        offsets.completed(records.get(0));
+        assertThat(offsets.committable(Set.of(events))).containsExactly(Map.entry(events, new OffsetAndMetadata(8)));
+    }
+
+    @Test
+    void committable_advancesPartitionsIndependentlyAndOnlyOnce() {
+        ConsumerRecord<String, Object> slow = record(events, 0);
+        ConsumerRecord<String, Object> fast = record(deletions, 3);
+        offsets.dispatched(slow);
+        offsets.dispatched(fast);
+
+        offsets.completed(fast);
+
+        assertThat(offsets.committable(Set.of(events, deletions))).containsExactly(Map.entry(deletions, new OffsetAndMetadata(4)));
+        assertThat(offsets.committable(Set.of(events, deletions))).isEmpty();
+    }
+
+    @Test
+    void committable_forgetsRevokedPartitions() {
+        ConsumerRecord<String, Object> record = record(events, 2);
+        offsets.dispatched(record);
+        offsets.completed(record);
+
+        assertThat(offsets.committable(Set.of(deletions))).isEmpty();
+        assertThat(offsets.committable(Set.of(events))).isEmpty();
+    }
+
+    private ConsumerRecord<String, Object> record(TopicPartition partition, long offset) {
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, null, offset);
+    }
+}
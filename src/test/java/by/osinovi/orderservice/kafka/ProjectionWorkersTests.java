@@ -0,0 +1,102 @@
+package by.osinovi.orderservice.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectionWorkersTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProjectionWorkers projectionWorkers = new ProjectionWorkers(meterRegistry, 3, 4);
+
+    @AfterEach
+    void tearDown() {
+        projectionWorkers.shutdown();
+    }
+
+    @Test
+    void workerFor_isStableAndCoversAllWorkers() {
+        assertThat(projectionWorkers.workerFor(42L)).isEqualTo(projectionWorkers.workerFor(42L));
+        assertThat(LongStream.range(0, 30).mapToObj(projectionWorkers::workerFor).distinct())
+                .containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void submit_queuesRecordsWhileWorkerIsBusyAndHandsThemOverTogether() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<List<Long>> batches = new LinkedBlockingQueue<>();
+        projectionWorkers.start(records -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(records.stream().map(ConsumerRecord::offset).toList());
+        });
+        Long orderId = 7L;
+        String worker = String.valueOf(projectionWorkers.workerFor(orderId));
+
+        projectionWorkers.submit(orderId, record(0));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        projectionWorkers.submit(orderId, record(1));
+        projectionWorkers.submit(orderId, record(2));
+
+        assertThat(meterRegistry.get("order.projector.queue.depth").tag("worker", worker).gauge().value()).isEqualTo(3.0);
+        assertThat(projectionWorkers.remainingCapacity()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly(0L);
+        assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void start_keepsWorkerRunningAfterHandlerFails() throws InterruptedException {
+        BlockingQueue<Long> handled = new LinkedBlockingQueue<>();
+        projectionWorkers.start(records -> {
+            handled.add(records.get(0).offset());
+            if (records.get(0).offset() == 0) {
+                throw new IllegalStateException("mongo unavailable");
+            }
+        });
+
+        projectionWorkers.submit(1L, record(0));
+        assertThat(handled.poll(5, TimeUnit.SECONDS)).isZero();
+        projectionWorkers.submit(1L, record(1));
+
+        assertThat(handled.poll(5, TimeUnit.SECONDS)).isEqualTo(1L);
+    }
+
+    @Test
+    void remainingCapacity_reportsFullestWorker() throws InterruptedException {
+        projectionWorkers.submit(0L, record(0));
+        projectionWorkers.submit(0L, record(1));
+        projectionWorkers.submit(1L, record(2));
+
+        assertThat(projectionWorkers.remainingCapacity()).isEqualTo(2);
+    }
+
+    @Test
+    void constructor_rejectsZeroWorkersOrCapacity() {
+        assertThatThrownBy(() -> new ProjectionWorkers(meterRegistry, 0, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ProjectionWorkers(meterRegistry, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ConsumerRecord<String, Object> record(long offset) {
+        return new ConsumerRecord<>("order-events", 0, offset, null, offset);
+    }
+}
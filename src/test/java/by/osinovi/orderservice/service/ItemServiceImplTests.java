@@ -116,6 +116,12 @@ class ItemServiceImplTests {
 				.hasMessageContaining("Item with ID 123 not found");
 	}
 
+	@Test
+	void getCatalogVersion_readsSharedCounter() {
+		when(itemRepository.findCatalogVersion()).thenReturn(42L);
+		assertThat(itemService.getCatalogVersion()).isEqualTo("items-42");
+	}
+
 	@Test
 	void deleteItem_success() {
 		when(itemRepository.existsById(10L)).thenReturn(true);
@@ -0,0 +1,425 @@
+package by.osinovi.orderservice.service;
+
+import by.osinovi.orderservice.dto.message.OrderEvent;
+import by.osinovi.orderservice.dto.message.OrderMessage;
+import by.osinovi.orderservice.dto.message.OrderPaymentEvent;
+import by.osinovi.orderservice.dto.message.PaymentMessage;
+import by.osinovi.orderservice.dto.order.OrderRequestDto;
+import by.osinovi.orderservice.dto.order.OrderResponseDto;
+import by.osinovi.orderservice.dto.order.OrderWithUserResponseDto;
+import by.osinovi.orderservice.dto.order_item.OrderItemRequestDto;
+import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
+import by.osinovi.orderservice.entity.Item;
+import by.osinovi.orderservice.entity.Order;
+import by.osinovi.orderservice.entity.OrderItem;
+import by.osinovi.orderservice.exception.NotFoundException;
+import by.osinovi.orderservice.mapper.OrderEventMapper;
+import by.osinovi.orderservice.mapper.OrderMapper;
+import by.osinovi.orderservice.repository.ItemRepository;
+import by.osinovi.orderservice.repository.OrderRepository;
+import by.osinovi.orderservice.service.impl.OrderCommandServiceImpl;
+import by.osinovi.orderservice.util.OrderStatus;
+import by.osinovi.orderservice.util.OutboxEventType;
+import by.osinovi.orderservice.util.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCommandServiceImplTests {
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private ItemRepository itemRepository;
+
+	@Mock
+	private OrderMapper orderMapper;
+
+	@Mock
+	private UserInfoService userInfoService;
+
+	@Mock
+	private OutboxService outboxService;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	private final ExecutorService userLookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OrderCommandServiceImpl orderCommandService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		orderCommandService = new OrderCommandServiceImpl(orderRepository, entityManager, itemRepository, orderMapper, new OrderEventMapper(),
+				userInfoService, outboxService, transactionTemplate, userLookupExecutor, meterRegistry);
+		ReflectionTestUtils.setField(orderCommandService, "batchChunkSize", 2);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	@Test
+	void createOrder_resolvesItemsInSingleQueryAndMergesRepeatedItems() {
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(),
+				List.of(new OrderItemRequestDto(1L, 2), new OrderItemRequestDto(2L, 1), new OrderItemRequestDto(1L, 3)));
+		Order order = orderWithItems(100L, 1L, 2L, 1L);
+		Item first = new Item(1L, "First", new BigDecimal("10.00"));
+		Item second = new Item(2L, "Second", new BigDecimal("5.00"));
+		OrderResponseDto orderResp = new OrderResponseDto(5L, 100L, null, OrderStatus.CREATED, req.getCreationDate(), List.of());
+		UserInfoResponseDto userResp = new UserInfoResponseDto(100L, "John", "Doe", LocalDate.of(1990, 1, 1), "john@example.com");
+
+		when(orderMapper.toEntity(req)).thenReturn(order);
+		when(itemRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+		when(orderRepository.save(order)).thenAnswer(invocation -> {
+			order.setId(5L);
+			return order;
+		});
+		when(orderMapper.toMessage(any(Order.class), any(BigDecimal.class))).thenReturn(new OrderMessage(5L, 100L, BigDecimal.ZERO));
+		when(orderMapper.toResponse(order)).thenReturn(orderResp);
+		when(userInfoService.getUserInfoById(100L)).thenReturn(userResp);
+
+		OrderWithUserResponseDto result = orderCommandService.createOrder(req);
+
+		assertThat(result.getOrder().getId()).isEqualTo(5L);
+		assertThat(order.getOrderItems()).extracting(orderItem -> orderItem.getItem().getName(), OrderItem::getQuantity)
+				.containsExactly(tuple("First", 5), tuple("Second", 1));
+		assertThat(order.getOrderItems()).allMatch(orderItem -> orderItem.getOrder() == order);
+		verify(itemRepository).findAllById(Set.of(1L, 2L));
+		verify(itemRepository, never()).findById(any());
+		verify(outboxService).enqueue(eq(OutboxEventType.ORDER_MESSAGE), eq("5"), any(OrderMessage.class));
+		verify(outboxService).enqueue(eq(OutboxEventType.ORDER_EVENT), eq("5"),
+				argThat(event -> ((OrderEvent) event).getTotalAmount().compareTo(new BigDecimal("55.00")) == 0));
+	}
+
+	@Test
+	void createOrder_reportsAllMissingItems() {
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(),
+				List.of(new OrderItemRequestDto(1L, 1), new OrderItemRequestDto(7L, 1), new OrderItemRequestDto(8L, 1)));
+		Order order = orderWithItems(100L, 1L, 7L, 8L);
+
+		when(orderMapper.toEntity(req)).thenReturn(order);
+		when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(new Item(1L, "First", BigDecimal.ONE)));
+
+		assertThatThrownBy(() -> orderCommandService.createOrder(req))
+				.isInstanceOf(NotFoundException.class)
+				.hasMessageContaining("Items not found with ids: [7, 8]");
+		verify(orderRepository, never()).save(any());
+		verify(outboxService, never()).enqueue(any(), any(), any());
+	}
+
+	@Test
+	void createOrder_recordsUserLookupOverlap() {
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 1)));
+		Order order = orderWithItems(100L, 1L);
+
+		when(orderMapper.toEntity(req)).thenReturn(order);
+		when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(new Item(1L, "First", BigDecimal.ONE)));
+		when(orderRepository.save(order)).thenAnswer(invocation -> {
+			order.setId(5L);
+			return order;
+		});
+		when(userInfoService.getUserInfoById(100L)).thenReturn(new UserInfoResponseDto(100L, "John", "Doe", null, "john@example.com"));
+
+		OrderWithUserResponseDto result = orderCommandService.createOrder(req);
+
+		assertThat(result.getUser().getId()).isEqualTo(100L);
+		assertThat(meterRegistry.get("order.user.lookup.overlap").tag("operation", "create").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("order.user.lookup.wait").tag("operation", "create").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void createOrder_userLookupFailingAfterItemsResolved_neverOpensWriteTransaction() {
+		OrderRequestDto req = new OrderRequestDto(999L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 1)));
+		CompletableFuture<Void> itemsResolved = new CompletableFuture<>();
+
+		when(orderMapper.toEntity(req)).thenReturn(orderWithItems(999L, 1L));
+		when(itemRepository.findAllById(Set.of(1L))).thenAnswer(invocation -> {
+			itemsResolved.complete(null);
+			return List.of(new Item(1L, "First", BigDecimal.ONE));
+		});
+		when(userInfoService.getUserInfoById(999L)).thenAnswer(invocation -> {
+			itemsResolved.get(5, TimeUnit.SECONDS);
+			throw new NotFoundException("User with ID 999 not found");
+		});
+
+		assertThatThrownBy(() -> orderCommandService.createOrder(req))
+				.isInstanceOf(NotFoundException.class);
+		verify(transactionTemplate, never()).execute(any());
+		verify(orderRepository, never()).save(any());
+		verify(outboxService, never()).enqueue(any(), any(), any());
+	}
+
+	@Test
+	void updateOrder_opensWriteTransactionOnlyAfterUserLookupReturned() {
+		Order existing = orderWithItems(100L, 1L);
+		existing.setId(5L);
+		existing.setVersion(0L);
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 2)));
+		CompletableFuture<Void> lookupReturned = new CompletableFuture<>();
+		AtomicBoolean writtenBeforeLookup = new AtomicBoolean();
+
+		doAnswer(invocation -> {
+			writtenBeforeLookup.set(!lookupReturned.isDone());
+			return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+		}).when(transactionTemplate).execute(any());
+		when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(new Item(1L, "First", BigDecimal.ONE)));
+		when(orderRepository.findById(5L)).thenReturn(Optional.of(existing));
+		when(orderRepository.saveAndFlush(existing)).thenReturn(existing);
+		when(userInfoService.getUserInfoById(100L)).thenAnswer(invocation -> {
+			lookupReturned.complete(null);
+			return new UserInfoResponseDto(100L, "John", "Doe", null, "john@example.com");
+		});
+
+		orderCommandService.updateOrder(5L, req);
+
+		assertThat(writtenBeforeLookup).isFalse();
+		verify(transactionTemplate).execute(any());
+	}
+
+	@Test
+	void createOrder_userNotFound_propagatesNotFound() {
+		OrderRequestDto req = new OrderRequestDto(999L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 1)));
+		Order order = orderWithItems(999L, 1L);
+
+		when(orderMapper.toEntity(req)).thenReturn(order);
+		when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(new Item(1L, "First", BigDecimal.ONE)));
+		when(orderRepository.save(order)).thenAnswer(invocation -> {
+			order.setId(5L);
+			return order;
+		});
+		when(userInfoService.getUserInfoById(999L)).thenThrow(new NotFoundException("User with ID 999 not found"));
+
+		assertThatThrownBy(() -> orderCommandService.createOrder(req))
+				.isInstanceOf(NotFoundException.class)
+				.hasMessageContaining("User with ID 999 not found");
+	}
+
+	@Test
+	void updateOrder_reconcilesItemsByItemId() {
+		Item kept = new Item(1L, "Kept", new BigDecimal("10.00"));
+		Item changed = new Item(2L, "Changed", new BigDecimal("5.00"));
+		Item removed = new Item(3L, "Removed", new BigDecimal("1.00"));
+		Item added = new Item(4L, "Added", new BigDecimal("2.00"));
+		Order existing = new Order();
+		existing.setId(5L);
+		existing.setUserId(100L);
+		existing.setVersion(2L);
+		OrderItem keptLine = new OrderItem(11L, existing, kept, 1);
+		OrderItem changedLine = new OrderItem(12L, existing, changed, 1);
+		OrderItem removedLine = new OrderItem(13L, existing, removed, 1);
+		existing.setOrderItems(new ArrayList<>(List.of(keptLine, changedLine, removedLine)));
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(), List.of(
+				new OrderItemRequestDto(1L, 1), new OrderItemRequestDto(2L, 4), new OrderItemRequestDto(4L, 2)));
+
+		when(orderRepository.findById(5L)).thenReturn(Optional.of(existing));
+		when(itemRepository.findAllById(Set.of(1L, 2L, 4L))).thenReturn(List.of(kept, changed, added));
+		when(orderRepository.saveAndFlush(existing)).thenReturn(existing);
+		when(userInfoService.getUserInfoById(100L)).thenReturn(new UserInfoResponseDto(100L, "John", "Doe", null, "john@example.com"));
+
+		orderCommandService.updateOrder(5L, req);
+
+		assertThat(existing.getOrderItems()).containsSubsequence(keptLine, changedLine);
+		assertThat(existing.getOrderItems()).doesNotContain(removedLine);
+		assertThat(keptLine.getQuantity()).isEqualTo(1);
+		assertThat(changedLine.getQuantity()).isEqualTo(4);
+		assertThat(existing.getOrderItems()).hasSize(3);
+		OrderItem addedLine = existing.getOrderItems().get(2);
+		assertThat(addedLine.getId()).isNull();
+		assertThat(addedLine.getItem()).isSameAs(added);
+		assertThat(addedLine.getQuantity()).isEqualTo(2);
+		assertThat(existing.getStatus()).isEqualTo(OrderStatus.CHANGED);
+		assertThat(existing.getVersion()).isEqualTo(3L);
+	}
+
+	@Test
+	void updateOrder_collapsesDuplicateLinesAlreadyStoredForAnItem() {
+		Item item = new Item(1L, "Item", new BigDecimal("10.00"));
+		Order existing = new Order();
+		existing.setId(5L);
+		existing.setUserId(100L);
+		existing.setVersion(2L);
+		OrderItem firstLine = new OrderItem(11L, existing, item, 1);
+		OrderItem duplicateLine = new OrderItem(12L, existing, item, 2);
+		existing.setOrderItems(new ArrayList<>(List.of(firstLine, duplicateLine)));
+		OrderRequestDto req = new OrderRequestDto(100L, LocalDate.now(), List.of(
+				new OrderItemRequestDto(1L, 2), new OrderItemRequestDto(1L, 1)));
+
+		when(orderRepository.findById(5L)).thenReturn(Optional.of(existing));
+		when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+		when(orderRepository.saveAndFlush(existing)).thenReturn(existing);
+		when(userInfoService.getUserInfoById(100L)).thenReturn(new UserInfoResponseDto(100L, "John", "Doe", null, "john@example.com"));
+
+		orderCommandService.updateOrder(5L, req);
+
+		assertThat(existing.getOrderItems()).containsExactly(firstLine);
+		assertThat(firstLine.getQuantity()).isEqualTo(3);
+	}
+
+	@Test
+	void createOrders_persistsInChunksOfOneTransactionAndEnqueuesEventsPerOrder() {
+		List<OrderRequestDto> requests = List.of(
+				new OrderRequestDto(1L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 1))),
+				new OrderRequestDto(2L, LocalDate.now(), List.of(new OrderItemRequestDto(1L, 2))),
+				new OrderRequestDto(3L, LocalDate.now(), List.of(new OrderItemRequestDto(2L, 1))));
+		Item first = new Item(1L, "First", new BigDecimal("10.00"));
+		Item second = new Item(2L, "Second", new BigDecimal("5.00"));
+		AtomicLong ids = new AtomicLong();
+
+		for (OrderRequestDto request : requests) {
+			when(orderMapper.toEntity(request)).thenReturn(orderWithItems(request.getUserId(), request.getOrderItems().get(0).getItemId()));
+		}
+		when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(first));
+		when(itemRepository.findAllById(Set.of(2L))).thenReturn(List.of(second));
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Order> orders = invocation.getArgument(0);
+			orders.forEach(order -> order.setId(ids.incrementAndGet()));
+			return orders;
+		});
+		when(orderMapper.toMessage(any(Order.class), any(BigDecimal.class))).thenReturn(new OrderMessage(1L, 1L, BigDecimal.ZERO));
+
+		List<Long> result = orderCommandService.createOrders(requests);
+
+		assertThat(result).containsExactly(1L, 2L, 3L);
+		verify(transactionTemplate).execute(any());
+		verify(orderRepository, times(2)).saveAll(anyList());
+		verify(orderRepository, times(2)).flush();
+		verify(entityManager, times(2)).clear();
+		verify(itemRepository).findAllById(Set.of(1L));
+		verify(outboxService, times(3)).enqueue(eq(OutboxEventType.ORDER_MESSAGE), any(), any());
+		verify(outboxService, times(3)).enqueue(eq(OutboxEventType.ORDER_EVENT), any(), any());
+		verify(userInfoService, never()).getUserInfoById(any());
+	}
+
+	@Test
+	void processPayments_groupsByOutcomeAndKeepsLatestPaymentPerOrder() {
+		UUID superseded = UUID.randomUUID();
+		UUID paidFirst = UUID.randomUUID();
+		UUID paidSecond = UUID.randomUUID();
+		UUID failed = UUID.randomUUID();
+		List<PaymentMessage> payments = List.of(
+				new PaymentMessage(superseded, 1L, 10L, PaymentStatus.FAILED, BigDecimal.TEN),
+				new PaymentMessage(paidFirst, 2L, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN),
+				new PaymentMessage(failed, 3L, 10L, PaymentStatus.FAILED, BigDecimal.TEN),
+				new PaymentMessage(paidSecond, 1L, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN));
+		when(orderRepository.applyPayments(any(), any(), any())).thenReturn(List.of(appliedPayment(1L, 1L), appliedPayment(2L, 1L)), List.of(appliedPayment(3L, 1L)));
+
+		orderCommandService.processPayments(payments);
+
+		verify(orderRepository).applyPayments("PAID", new Long[]{1L, 2L}, new UUID[]{paidSecond, paidFirst});
+		verify(orderRepository).applyPayments("FAILED", new Long[]{3L}, new UUID[]{failed});
+		verify(orderRepository, never()).save(any());
+	}
+
+	@Test
+	void processPayments_publishesVersionedEventsForAppliedPaymentsOnly() {
+		UUID applied = UUID.randomUUID();
+		when(orderRepository.applyPayments(any(), any(), any())).thenReturn(List.of(appliedPayment(1L, 3L)));
+
+		orderCommandService.processPayments(List.of(
+				new PaymentMessage(applied, 1L, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN),
+				new PaymentMessage(UUID.randomUUID(), 2L, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN)));
+
+		verify(outboxService).enqueueAll(OutboxEventType.ORDER_PAYMENT,
+				Map.of("1", new OrderPaymentEvent(1L, 3L, OrderStatus.PAID, applied)));
+		verify(orderRepository, never()).findById(any());
+	}
+
+	@Test
+	void processPayments_nothingApplied_publishesNothing() {
+		when(orderRepository.applyPayments(any(), any(), any())).thenReturn(List.of());
+
+		orderCommandService.processPayments(List.of(new PaymentMessage(UUID.randomUUID(), 1L, 10L, PaymentStatus.SUCCESS, BigDecimal.TEN)));
+
+		verify(outboxService, never()).enqueueAll(any(), any());
+	}
+
+	@Test
+	void deleteOrder_notFound() {
+		when(orderRepository.deleteAllByIdReturningIds(new Long[]{44L})).thenReturn(List.of());
+
+		assertThatThrownBy(() -> orderCommandService.deleteOrder(44L))
+				.isInstanceOf(NotFoundException.class)
+				.hasMessageContaining("44");
+		verify(outboxService, never()).enqueue(any(), any(), any());
+	}
+
+	@Test
+	void deleteOrders_deletesInOneStatementAndEnqueuesDeletedIds() {
+		when(orderRepository.deleteAllByIdReturningIds(new Long[]{1L, 2L, 3L})).thenReturn(List.of(1L, 3L));
+
+		List<Long> deleted = orderCommandService.deleteOrders(List.of(1L, 2L, 1L, 3L));
+
+		assertThat(deleted).containsExactly(1L, 3L);
+		verify(outboxService).enqueueAll(OutboxEventType.ORDER_DELETED, Map.of("1", 1L, "3", 3L));
+	}
+
+	private OrderRepository.AppliedPayment appliedPayment(Long id, Long version) {
+		return new OrderRepository.AppliedPayment() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Long getVersion() {
+				return version;
+			}
+		};
+	}
+
+	private Order orderWithItems(Long userId, Long... itemIds) {
+		Order order = new Order();
+		order.setUserId(userId);
+		List<OrderItem> orderItems = new ArrayList<>();
+		for (Long itemId : itemIds) {
+			OrderItem orderItem = new OrderItem();
+			orderItem.setItem(new Item(itemId, null, null));
+			orderItem.setQuantity(1);
+			orderItems.add(orderItem);
+		}
+		order.setOrderItems(orderItems);
+		return order;
+	}
+}
@@ -0,0 +1,167 @@
+package by.osinovi.orderservice.service;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderSummary;
+import by.osinovi.orderservice.dto.page.CursorPageDto;
+import by.osinovi.orderservice.exception.ValidationException;
+import by.osinovi.orderservice.repository.OrderMongoRepository;
+import by.osinovi.orderservice.service.impl.OrderQueryServiceImpl;
+import by.osinovi.orderservice.util.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderQueryServiceImplTests {
+	private static final String COLLECTION = "orders_read_model";
+
+	@Mock
+	private OrderMongoRepository mongoRepository;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private OrderQueryServiceImpl orderQueryService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		orderQueryService = new OrderQueryServiceImpl(mongoRepository, mongoTemplate, new ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(orderQueryService, "exportCursorBatchSize", 100);
+		ReflectionTestUtils.setField(orderQueryService, "defaultPageSize", 2);
+		ReflectionTestUtils.setField(orderQueryService, "maxPageSize", 10);
+		when(mongoTemplate.getCollectionName(OrderDocument.class)).thenReturn(COLLECTION);
+	}
+
+	@Test
+	void getOrderSummaries_returnsNextCursorWhenMoreOrdersExist() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.find(query.capture(), eq(OrderSummary.class), eq(COLLECTION)))
+				.thenReturn(List.of(summary(1L), summary(2L), summary(3L)))
+				.thenReturn(List.of(summary(3L)));
+
+		CursorPageDto<OrderSummary> first = orderQueryService.getOrderSummaries(null, null);
+		CursorPageDto<OrderSummary> second = orderQueryService.getOrderSummaries(first.getNext(), null);
+
+		assertThat(first.getItems()).extracting(OrderSummary::getId).containsExactly(1L, 2L);
+		assertThat(first.getNext()).isNotNull();
+		assertThat(second.getItems()).extracting(OrderSummary::getId).containsExactly(3L);
+		assertThat(second.getNext()).isNull();
+		Query continuation = query.getAllValues().get(1);
+		assertThat(continuation.getQueryObject().get("_id")).isEqualTo(new Document("$gt", 2L));
+		assertThat(continuation.getFieldsObject()).containsOnlyKeys("id", "status", "creationDate", "totalAmount");
+		assertThat(continuation.getLimit()).isEqualTo(3);
+	}
+
+	@Test
+	void getOrders_projectsRequestedFields() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.find(query.capture(), eq(OrderDocument.class), eq(COLLECTION))).thenReturn(List.of(document(1L)));
+
+		orderQueryService.getOrders(null, null, Set.of("status", "paymentId"));
+
+		assertThat(query.getValue().getFieldsObject()).containsOnlyKeys("status", "paymentId");
+	}
+
+	@Test
+	void getOrders_rejectsInvalidCursorPageSizeAndFields() {
+		assertThatThrownBy(() -> orderQueryService.getOrderSummaries("not a cursor", null))
+				.isInstanceOf(ValidationException.class);
+		assertThatThrownBy(() -> orderQueryService.getOrderSummaries(null, 11))
+				.isInstanceOf(ValidationException.class);
+		assertThatThrownBy(() -> orderQueryService.getOrders(null, null, Set.of("status", "secret")))
+				.isInstanceOf(ValidationException.class);
+	}
+
+	@Test
+	void getOrdersByUser_continuesAfterCursorPosition() {
+		OrderDocument newest = document(9L);
+		newest.setCreationDate(LocalDate.of(2025, 10, 3));
+		OrderDocument sameDay = document(7L);
+		sameDay.setCreationDate(LocalDate.of(2025, 10, 2));
+		OrderDocument older = document(8L);
+		older.setCreationDate(LocalDate.of(2025, 10, 1));
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.find(query.capture(), eq(OrderDocument.class), eq(COLLECTION)))
+				.thenReturn(List.of(newest, sameDay, older))
+				.thenReturn(List.of(older));
+
+		CursorPageDto<OrderDocument> first = orderQueryService.getOrdersByUser(5L, null, null, Set.of("status"));
+		CursorPageDto<OrderDocument> second = orderQueryService.getOrdersByUser(5L, first.getNext(), null, Set.of("status"));
+
+		assertThat(first.getItems()).extracting(OrderDocument::getId).containsExactly(9L, 7L);
+		assertThat(second.getItems()).extracting(OrderDocument::getId).containsExactly(8L);
+		assertThat(second.getNext()).isNull();
+		Query continuation = query.getAllValues().get(1);
+		assertThat(continuation.getQueryObject()).containsEntry("user.id", 5L).containsKey("$or");
+		assertThat(continuation.getSortObject().toJson()).isEqualTo("{\"creationDate\": -1, \"_id\": -1}");
+		assertThat(continuation.getLimit()).isEqualTo(3);
+		assertThat(continuation.getFieldsObject()).containsOnlyKeys("status", "creationDate");
+	}
+
+	@Test
+	void exportOrders_writesOneJsonDocumentPerLineFromCursor() throws IOException {
+		OrderDocument first = document(1L);
+		first.setStatus(OrderStatus.PAID);
+		first.setCreationDate(LocalDate.of(2025, 10, 1));
+		OrderDocument second = document(2L);
+		second.setStatus(OrderStatus.PAID);
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.stream(query.capture(), eq(OrderDocument.class))).thenReturn(Stream.of(first, second));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		orderQueryService.exportOrders(orderQueryService.exportQuery(OrderStatus.PAID, LocalDate.of(2025, 10, 1), null, null), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"status\":\"PAID\"");
+		assertThat(lines[1]).startsWith("{\"id\":2,");
+		assertThat(query.getValue().getQueryObject()).containsKeys("status", "creationDate");
+		assertThat(query.getValue().getMeta().getCursorBatchSize()).isEqualTo(100);
+	}
+
+	@Test
+	void exportQuery_rejectsInvertedDateRange() {
+		assertThatThrownBy(() -> orderQueryService.exportQuery(null, LocalDate.of(2025, 10, 2), LocalDate.of(2025, 10, 1), null))
+				.isInstanceOf(ValidationException.class);
+	}
+
+	@Test
+	void exportQuery_rejectsUnknownFieldsBeforeStreaming() {
+		assertThatThrownBy(() -> orderQueryService.exportQuery(null, null, null, Set.of("secret")))
+				.isInstanceOf(ValidationException.class);
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	private OrderSummary summary(Long id) {
+		OrderSummary summary = new OrderSummary();
+		summary.setId(id);
+		return summary;
+	}
+
+	private OrderDocument document(Long id) {
+		OrderDocument document = new OrderDocument();
+		document.setId(id);
+		return document;
+	}
+}
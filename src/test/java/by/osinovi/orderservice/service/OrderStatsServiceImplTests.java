@@ -0,0 +1,85 @@
+package by.osinovi.orderservice.service;
+
+import by.osinovi.orderservice.document.OrderDocument;
+import by.osinovi.orderservice.document.OrderRollupDocument;
+import by.osinovi.orderservice.exception.ValidationException;
+import by.osinovi.orderservice.service.impl.OrderStatsServiceImpl;
+import by.osinovi.orderservice.util.OrderStatus;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStatsServiceImplTests {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private BulkOperations bulkOperations;
+
+	@InjectMocks
+	private OrderStatsServiceImpl orderStatsService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderRollupDocument.class)).thenReturn(bulkOperations);
+	}
+
+	@Test
+	void recordTransition_movesCountAndRevenueBetweenStatuses() {
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+
+		orderStatsService.recordTransition(order(OrderStatus.CREATED, "40.00"), order(OrderStatus.PAID, "40.00"));
+
+		verify(bulkOperations, times(2)).upsert(queries.capture(), updates.capture());
+		verify(bulkOperations).execute();
+		assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+				.containsExactly("2025-10-18|CREATED", "2025-10-18|PAID");
+		Document created = updates.getAllValues().get(0).getUpdateObject().get("$inc", Document.class);
+		Document paid = updates.getAllValues().get(1).getUpdateObject().get("$inc", Document.class);
+		assertThat(created).containsEntry("count", -1L).containsEntry("revenue", new Decimal128(new BigDecimal("-40.00")));
+		assertThat(paid).containsEntry("count", 1L).containsEntry("revenue", new Decimal128(new BigDecimal("40.00")));
+	}
+
+	@Test
+	void recordTransition_skipsNoOpRedelivery() {
+		orderStatsService.recordTransition(order(OrderStatus.CREATED, "40.00"), order(OrderStatus.CREATED, "40.00"));
+
+		verify(bulkOperations, never()).execute();
+	}
+
+	@Test
+	void getStats_rejectsInvertedRange() {
+		assertThatThrownBy(() -> orderStatsService.getStats(LocalDate.of(2025, 10, 2), LocalDate.of(2025, 10, 1)))
+				.isInstanceOf(ValidationException.class);
+	}
+
+	private OrderDocument order(OrderStatus status, String totalAmount) {
+		OrderDocument order = new OrderDocument();
+		order.setStatus(status);
+		order.setCreationDate(LocalDate.of(2025, 10, 18));
+		order.setTotalAmount(new BigDecimal(totalAmount));
+		return order;
+	}
+}
@@ -5,14 +5,22 @@ import by.osinovi.orderservice.dto.user_info.UserInfoResponseDto;
 import by.osinovi.orderservice.exception.NotFoundException;
 import by.osinovi.orderservice.service.impl.UserInfoServiceImpl;
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserInfoServiceImplTests {
@@ -20,12 +28,19 @@ class UserInfoServiceImplTests {
 	@Mock
 	private UserClient userClient;
 
-	@InjectMocks
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
 	private UserInfoServiceImpl service;
 
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		service = new UserInfoServiceImpl(userClient, executor, new SimpleMeterRegistry(), "maximumSize=100,refreshAfterWrite=1m");
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
 	}
 
 	@Test
@@ -36,6 +51,28 @@ class UserInfoServiceImplTests {
 		assertThat(result.getId()).isEqualTo(1L);
 	}
 
+	@Test
+	void getUserInfoById_servesRepeatedLookupsFromCache() {
+		when(userClient.getUserInfoById(1L)).thenReturn(new UserInfoResponseDto(1L, "N", "S", null, "e"));
+		service.getUserInfoById(1L);
+		service.getUserInfoById(1L);
+		verify(userClient, times(1)).getUserInfoById(1L);
+	}
+
+	@Test
+	void getUserInfoByIds_fetchesOnlyUncachedUsersAndSkipsUnknown() {
+		when(userClient.getUserInfoById(1L)).thenReturn(new UserInfoResponseDto(1L, "A", "S", null, "a"));
+		when(userClient.getUserInfoById(2L)).thenReturn(new UserInfoResponseDto(2L, "B", "S", null, "b"));
+		when(userClient.getUserInfoById(3L)).thenThrow(FeignException.NotFound.class);
+		service.getUserInfoById(1L);
+
+		Map<Long, UserInfoResponseDto> result = service.getUserInfoByIds(List.of(1L, 2L, 3L));
+
+		assertThat(result).containsOnlyKeys(1L, 2L);
+		verify(userClient, times(1)).getUserInfoById(1L);
+		verify(userClient, times(1)).getUserInfoById(2L);
+	}
+
 	@Test
 	void getUserInfoById_notFound() {
 		when(userClient.getUserInfoById(2L)).thenThrow(FeignException.NotFound.class);
@@ -0,0 +1,24 @@
+package by.osinovi.orderservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTests {
+
+    @Test
+    void of_isStableSha256OfParts() {
+        assertThat(ETags.of("order", 1L, 3L, OrderStatus.PAID))
+                .isEqualTo(ETags.of("order", 1L, 3L, OrderStatus.PAID))
+                .isEqualTo("order-Lyv54KxmEi3G_qnVZat46HP6Okmm0TUS7xSEHNorJOc")
+                .hasSize("order-".length() + 43);
+    }
+
+    @Test
+    void of_separatesParts() {
+        assertThat(ETags.of("item", "ab", "c")).isNotEqualTo(ETags.of("item", "a", "bc"));
+        assertThat(ETags.of("item", 1L, new BigDecimal("2.50"))).isNotEqualTo(ETags.of("item", 1L, new BigDecimal("2.51")));
+    }
+}